@@ -0,0 +1,103 @@
+package io.github.reata.sqllineage4j.benchmark;
+
+import io.github.reata.sqllineage4j.core.LineageAnalyzer;
+import io.github.reata.sqllineage4j.core.holder.SQLLineageHolder;
+import io.github.reata.sqllineage4j.core.holder.StatementLineageHolder;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
+import io.github.reata.sqllineage4j.parser.LineageParser;
+import io.github.reata.sqllineage4j.parser.StatementSplitter;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * One benchmark per stage of the pipeline. Each stage gets the output of the previous stages precomputed,
+ * so that only the stage itself is measured.
+ * <p>
+ * Run with {@code java -jar sqllineage4j-benchmark/target/benchmarks.jar}, add e.g. {@code -p workload=WIDE_SELECT}
+ * to narrow down the parameters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineageBenchmark {
+
+    @Param
+    public Workload workload;
+
+    @Param
+    public LineageGraphType graphType;
+
+    private String script;
+    private List<String> statements;
+    private List<ParseTree> trees;
+    private StatementLineageHolder[] holders;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        script = workload.script();
+        statements = new StatementSplitter(script).split();
+        trees = statements.stream().map(LineageParser::parse).collect(Collectors.toList());
+        holders = trees.stream().map(tree -> new LineageAnalyzer(graphType).analyze(tree)).toArray(StatementLineageHolder[]::new);
+    }
+
+    /**
+     * Lineage holder built fresh for every invocation, as its results are memoized.
+     */
+    @State(Scope.Thread)
+    public static class FreshHolder {
+        private SQLLineageHolder holder;
+
+        @Setup(Level.Invocation)
+        public void setUp(LineageBenchmark benchmark) {
+            holder = SQLLineageHolder.of(benchmark.graphType, benchmark.holders);
+        }
+    }
+
+    @Benchmark
+    public List<String> split() {
+        return new StatementSplitter(script).split();
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        for (String statement : statements) {
+            blackhole.consume(LineageParser.parse(statement));
+        }
+    }
+
+    @Benchmark
+    public void analyze(Blackhole blackhole) {
+        for (ParseTree tree : trees) {
+            blackhole.consume(new LineageAnalyzer(graphType).analyze(tree));
+        }
+    }
+
+    @Benchmark
+    public SQLLineageHolder buildHolder() {
+        return SQLLineageHolder.of(graphType, holders);
+    }
+
+    /**
+     * Source and target column pairs, as returned by {@code LineageRunner.getColumnLineage}.
+     */
+    @Benchmark
+    public Object columnLineage(FreshHolder fresh) {
+        return fresh.holder.getColumnLineagePairs(true);
+    }
+
+    /**
+     * Full column lineage paths.
+     */
+    @Benchmark
+    public Object columnLineagePaths(FreshHolder fresh) {
+        return fresh.holder.getColumnLineage(true);
+    }
+}
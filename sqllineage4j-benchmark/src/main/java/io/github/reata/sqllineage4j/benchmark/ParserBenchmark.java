@@ -0,0 +1,89 @@
+package io.github.reata.sqllineage4j.benchmark;
+
+import io.github.reata.sqllineage4j.parser.LineageParser;
+import io.github.reata.sqllineage4j.parser.StatementSplitter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the statements the test suite runs through the parser, stored in {@code corpus.sql}, with and without
+ * two-stage parsing. The {@code parses} and {@code fallbacks} counters in the results tell how often two-stage parsing
+ * had to retry a statement with full LL prediction.
+ * <p>
+ * For the counts alone, run {@link #main} from the benchmarks jar, e.g.
+ * {@code java -cp sqllineage4j-benchmark/target/benchmarks.jar io.github.reata.sqllineage4j.benchmark.ParserBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({"false", "true"})
+    public boolean twoStage;
+
+    private List<String> statements;
+    private LineageParser parser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        statements = corpus();
+        parser = twoStage ? LineageParser.builder().twoStage().build() : new LineageParser();
+    }
+
+    /**
+     * Statements parsed and statements which fell back to LL, reported next to the timings.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long parses;
+        public long fallbacks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            parses = 0;
+            fallbacks = 0;
+        }
+    }
+
+    @Benchmark
+    public void parseCorpus(Counters counters, Blackhole blackhole) {
+        long parsed = parser.getParseCount();
+        long fellBack = parser.getFallbackCount();
+        for (String statement : statements) {
+            blackhole.consume(parser.parseStatement(statement));
+        }
+        counters.parses += parser.getParseCount() - parsed;
+        counters.fallbacks += parser.getFallbackCount() - fellBack;
+    }
+
+    static List<String> corpus() {
+        try (InputStream in = ParserBenchmark.class.getResourceAsStream("corpus.sql")) {
+            if (in == null) {
+                throw new IllegalStateException("corpus.sql not found");
+            }
+            return new StatementSplitter(new String(in.readAllBytes(), StandardCharsets.UTF_8)).split();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void main(String[] args) {
+        LineageParser parser = LineageParser.builder().twoStage().build();
+        for (String statement : corpus()) {
+            parser.parseStatement(statement);
+        }
+        System.out.printf("%d statements parsed, %d fell back to LL (%.1f%%)%n", parser.getParseCount(),
+                parser.getFallbackCount(), 100.0 * parser.getFallbackCount() / parser.getParseCount());
+    }
+}
@@ -0,0 +1,292 @@
+package io.github.reata.sqllineage4j.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates reproducible scripts of arbitrary size for benchmarks and soak tests: the same settings and seed always
+ * produce the same script.
+ * <p>
+ * Statements are INSERT OVERWRITE, INSERT INTO and CREATE TABLE AS SELECT, reading from a pool of source tables
+ * and from tables written by earlier statements, so that the lineage forms long chains rather than isolated pairs.
+ * Select items mix plain and qualified columns, aliases, function calls, CASE, CAST and arithmetic.
+ * DROP TABLE and ALTER TABLE RENAME can be interleaved to exercise their handling when statement lineage is combined.
+ * <p>
+ * Can also be run from the command line with {@code name=value} arguments named after the builder methods,
+ * e.g. {@code statements=10000 seed=7}, to print a script to standard output.
+ */
+public final class SqlWorkloadGenerator {
+
+    public static final class Builder {
+        private long seed = 0;
+        private int statements = 100;
+        private int columns = 10;
+        private int joins = 1;
+        private int cteDepth = 0;
+        private int nesting = 0;
+        private int dropRenameInterval = 0;
+        private int sourceTables = 20;
+
+        private Builder() {
+        }
+
+        public Builder seed(final long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder statements(final int statements) {
+            this.statements = statements;
+            return this;
+        }
+
+        /**
+         * Number of select items per statement.
+         */
+        public Builder columns(final int columns) {
+            this.columns = columns;
+            return this;
+        }
+
+        /**
+         * Number of tables joined to the first one in each FROM clause.
+         */
+        public Builder joins(final int joins) {
+            this.joins = joins;
+            return this;
+        }
+
+        /**
+         * Number of chained CTEs each statement reads from, 0 for none.
+         */
+        public Builder cteDepth(final int cteDepth) {
+            this.cteDepth = cteDepth;
+            return this;
+        }
+
+        /**
+         * Number of subquery levels the first table of each FROM clause is wrapped in.
+         */
+        public Builder nesting(final int nesting) {
+            this.nesting = nesting;
+            return this;
+        }
+
+        /**
+         * Emit a DROP TABLE or ALTER TABLE RENAME, alternately, after every this many statements. 0 for never.
+         */
+        public Builder dropRenameInterval(final int dropRenameInterval) {
+            this.dropRenameInterval = dropRenameInterval;
+            return this;
+        }
+
+        public Builder sourceTables(final int sourceTables) {
+            this.sourceTables = sourceTables;
+            return this;
+        }
+
+        public SqlWorkloadGenerator build() {
+            if (statements < 0 || cteDepth < 0 || nesting < 0 || dropRenameInterval < 0 || joins < 0) {
+                throw new IllegalArgumentException("sizes must not be negative");
+            }
+            if (columns < 1) {
+                throw new IllegalArgumentException("columns must be positive");
+            }
+            if (sourceTables < 1) {
+                throw new IllegalArgumentException("source tables must be positive");
+            }
+            return new SqlWorkloadGenerator(this);
+        }
+    }
+
+    private static final String[] FUNCTIONS = {"max", "min", "sum", "coalesce", "upper", "trim"};
+    private static final String[] TYPES = {"string", "int", "bigint", "double", "date"};
+
+    private final long seed;
+    private final int statements;
+    private final int columns;
+    private final int joins;
+    private final int cteDepth;
+    private final int nesting;
+    private final int dropRenameInterval;
+    private final int sourceTables;
+
+    private SqlWorkloadGenerator(final Builder builder) {
+        this.seed = builder.seed;
+        this.statements = builder.statements;
+        this.columns = builder.columns;
+        this.joins = builder.joins;
+        this.cteDepth = builder.cteDepth;
+        this.nesting = builder.nesting;
+        this.dropRenameInterval = builder.dropRenameInterval;
+        this.sourceTables = builder.sourceTables;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String generate() {
+        StringBuilder sql = new StringBuilder();
+        Random random = new Random(seed);
+        List<String> tables = new ArrayList<>();
+        for (int i = 0; i < sourceTables; i++) {
+            tables.add("src.source_" + i);
+        }
+        int written = 0;
+        for (int i = 0; i < statements; i++) {
+            String target = "dw.table_" + written++;
+            appendStatement(sql, random, tables, target);
+            sql.append(";\n");
+            tables.add(target);
+            if (dropRenameInterval > 0 && (i + 1) % dropRenameInterval == 0 && tables.size() > sourceTables) {
+                // only ever drop or rename written tables, so that there is always something left to read from
+                int index = sourceTables + random.nextInt(tables.size() - sourceTables);
+                if ((i + 1) / dropRenameInterval % 2 == 1) {
+                    sql.append("DROP TABLE ").append(tables.remove(index)).append(";\n");
+                } else {
+                    String renamed = "dw.renamed_" + written++;
+                    sql.append("ALTER TABLE ").append(tables.get(index)).append(" RENAME TO ").append(renamed).append(";\n");
+                    tables.set(index, renamed);
+                }
+            }
+        }
+        return sql.toString();
+    }
+
+    private void appendStatement(StringBuilder sql, Random random, List<String> tables, String target) {
+        int kind = random.nextInt(3);
+        if (kind == 2) {
+            // CREATE TABLE AS puts the CTEs after AS, while INSERT takes them in front
+            sql.append("CREATE TABLE ").append(target).append(" AS\n");
+        }
+        if (cteDepth > 0) {
+            sql.append("WITH ");
+            for (int c = 0; c < cteDepth; c++) {
+                if (c > 0) {
+                    sql.append(",\n");
+                }
+                String from = c == 0 ? pick(random, tables) : "cte_" + (c - 1);
+                sql.append("cte_").append(c).append(" AS (SELECT ").append(columnList(null))
+                        .append(" FROM ").append(from).append(")");
+            }
+            sql.append("\n");
+        }
+        if (kind == 0) {
+            sql.append("INSERT OVERWRITE TABLE ").append(target).append("\n");
+        } else if (kind == 1) {
+            sql.append("INSERT INTO TABLE ").append(target).append("\n");
+        }
+        sql.append("SELECT ");
+        int relations = joins + 1;
+        for (int i = 0; i < columns; i++) {
+            if (i > 0) {
+                sql.append(",\n       ");
+            }
+            appendSelectItem(sql, random, "t" + random.nextInt(relations), i);
+        }
+        sql.append("\nFROM ");
+        String first = cteDepth > 0 ? "cte_" + (cteDepth - 1) : pick(random, tables);
+        appendNested(sql, first, nesting);
+        sql.append(" t0");
+        for (int j = 1; j < relations; j++) {
+            sql.append("\n").append(random.nextBoolean() ? "JOIN " : "LEFT JOIN ").append(pick(random, tables))
+                    .append(" t").append(j).append(" ON t0.id = t").append(j).append(".id");
+        }
+        if (random.nextBoolean()) {
+            sql.append("\nWHERE t0.dt = '2023-01-").append(String.format("%02d", 1 + random.nextInt(28))).append("'");
+        }
+    }
+
+    private void appendNested(StringBuilder sql, String table, int depth) {
+        if (depth == 0) {
+            sql.append(table);
+            return;
+        }
+        sql.append("(SELECT ").append(columnList("n" + depth)).append(" FROM ");
+        appendNested(sql, table, depth - 1);
+        sql.append(" n").append(depth).append(")");
+    }
+
+    private String columnList(String qualifier) {
+        // nested queries and CTEs pass through id and dt for the outer join and filter, plus every column selected
+        StringBuilder list = new StringBuilder();
+        String prefix = qualifier == null ? "" : qualifier + ".";
+        list.append(prefix).append("id, ").append(prefix).append("dt");
+        for (int i = 0; i < columns; i++) {
+            list.append(", ").append(prefix).append("col_").append(i);
+        }
+        return list.toString();
+    }
+
+    private void appendSelectItem(StringBuilder sql, Random random, String qualifier, int index) {
+        String column = qualifier + ".col_" + index;
+        switch (random.nextInt(6)) {
+            case 0:
+                sql.append(column);
+                break;
+            case 1:
+                sql.append(column).append(" AS col_").append(index);
+                break;
+            case 2:
+                sql.append(FUNCTIONS[random.nextInt(FUNCTIONS.length)]).append("(").append(column).append(") AS col_").append(index);
+                break;
+            case 3:
+                sql.append("CASE WHEN ").append(column).append(" IS NULL THEN 0 ELSE ").append(column)
+                        .append(" END AS col_").append(index);
+                break;
+            case 4:
+                sql.append("CAST(").append(column).append(" AS ").append(TYPES[random.nextInt(TYPES.length)])
+                        .append(") AS col_").append(index);
+                break;
+            default:
+                sql.append(column).append(" + ").append(random.nextInt(100)).append(" AS col_").append(index);
+        }
+    }
+
+    private static String pick(Random random, List<String> tables) {
+        return tables.get(random.nextInt(tables.size()));
+    }
+
+    public static void main(String[] args) {
+        Builder builder = builder();
+        for (String arg : args) {
+            int pos = arg.indexOf('=');
+            if (pos < 0) {
+                throw new IllegalArgumentException("expected name=value, got " + arg);
+            }
+            String name = arg.substring(0, pos);
+            long value = Long.parseLong(arg.substring(pos + 1));
+            switch (name) {
+                case "seed":
+                    builder.seed(value);
+                    break;
+                case "statements":
+                    builder.statements((int) value);
+                    break;
+                case "columns":
+                    builder.columns((int) value);
+                    break;
+                case "joins":
+                    builder.joins((int) value);
+                    break;
+                case "cteDepth":
+                    builder.cteDepth((int) value);
+                    break;
+                case "nesting":
+                    builder.nesting((int) value);
+                    break;
+                case "dropRenameInterval":
+                    builder.dropRenameInterval((int) value);
+                    break;
+                case "sourceTables":
+                    builder.sourceTables((int) value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown setting " + name);
+            }
+        }
+        System.out.print(builder.build().generate());
+    }
+}
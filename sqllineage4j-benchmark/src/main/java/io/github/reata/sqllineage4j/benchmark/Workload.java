@@ -0,0 +1,115 @@
+package io.github.reata.sqllineage4j.benchmark;
+
+import java.util.function.Supplier;
+
+/**
+ * Synthetic scripts, each stressing a different dimension of the analysis.
+ */
+public enum Workload {
+    /**
+     * Few statements selecting hundreds of columns, qualified, aliased and wrapped in expressions, from a join.
+     */
+    WIDE_SELECT(() -> {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            sql.append("INSERT OVERWRITE TABLE db.wide_tgt").append(i).append("\nSELECT ");
+            for (int c = 0; c < 200; c++) {
+                if (c > 0) {
+                    sql.append(",\n       ");
+                }
+                switch (c % 4) {
+                    case 0:
+                        sql.append("a.col").append(c);
+                        break;
+                    case 1:
+                        sql.append("b.col").append(c).append(" AS out").append(c);
+                        break;
+                    case 2:
+                        sql.append("coalesce(a.col").append(c).append(", b.col").append(c).append(") AS out").append(c);
+                        break;
+                    default:
+                        sql.append("CASE WHEN a.col").append(c).append(" > 0 THEN b.col").append(c)
+                                .append(" ELSE 0 END AS out").append(c);
+                }
+            }
+            sql.append("\nFROM db.wide_src").append(i).append(" a\nJOIN db.wide_dim").append(i)
+                    .append(" b ON a.id = b.id;\n");
+        }
+        return sql.toString();
+    }),
+
+    /**
+     * Subqueries nested many levels deep, each level renaming the columns of the one below.
+     */
+    DEEP_NESTING(() -> {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            String query = "SELECT id, col0, col1 FROM db.nest_src" + i;
+            for (int depth = 1; depth <= 15; depth++) {
+                query = "SELECT t" + depth + ".id, t" + depth + ".col0 + 1 AS col0, t" + depth + ".col1\nFROM ("
+                        + query + ") t" + depth;
+            }
+            sql.append("INSERT OVERWRITE TABLE db.nest_tgt").append(i).append("\n").append(query).append(";\n");
+        }
+        return sql.toString();
+    }),
+
+    /**
+     * A long script of small statements feeding into one another, with some tables dropped and renamed on the way.
+     */
+    MANY_STATEMENTS(() -> {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            sql.append("INSERT OVERWRITE TABLE db.chain").append(i + 1)
+                    .append(" SELECT id, col1, max(col2) AS col2 FROM db.chain").append(i)
+                    .append(" WHERE dt = '2023-01-01' GROUP BY id, col1;\n");
+            if (i % 50 == 49) {
+                sql.append("DROP TABLE db.chain").append(i - 10).append(";\n");
+            } else if (i % 50 == 24) {
+                sql.append("ALTER TABLE db.chain").append(i - 10).append(" RENAME TO db.archive").append(i).append(";\n");
+            }
+        }
+        return sql.toString();
+    }),
+
+    /**
+     * Statements built from long chains of CTEs, each reading from the previous one.
+     */
+    MANY_CTES(() -> {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            sql.append("WITH cte0 AS (SELECT id, col1, col2 FROM db.cte_src").append(i).append(")");
+            for (int c = 1; c < 30; c++) {
+                sql.append(",\ncte").append(c).append(" AS (SELECT id, col1, col2 + ").append(c)
+                        .append(" AS col2 FROM cte").append(c - 1).append(")");
+            }
+            sql.append("\nINSERT OVERWRITE TABLE db.cte_tgt").append(i)
+                    .append("\nSELECT id, col1, col2 FROM cte29;\n");
+        }
+        return sql.toString();
+    }),
+
+    /**
+     * A script resembling a production ETL repository, mixing all of the above at a smaller scale.
+     */
+    GENERATED(() -> SqlWorkloadGenerator.builder()
+            .seed(42)
+            .statements(1000)
+            .columns(20)
+            .joins(2)
+            .cteDepth(2)
+            .nesting(2)
+            .dropRenameInterval(25)
+            .build()
+            .generate());
+
+    private final Supplier<String> generator;
+
+    Workload(Supplier<String> generator) {
+        this.generator = generator;
+    }
+
+    public String script() {
+        return generator.get();
+    }
+}
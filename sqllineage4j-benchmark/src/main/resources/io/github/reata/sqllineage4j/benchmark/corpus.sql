@@ -0,0 +1,561 @@
+insert overwrite table tab1 select * from tab2
+;
+select ( from tab1
+;
+select col1 from tab3
+;
+Select Col1, 'Literal' From Db.Tab1
+;
+WITH
+cte1 AS (SELECT a, b FROM table1),
+cte2 AS (SELECT c, d FROM table2)
+SELECT b, d FROM cte1 JOIN cte2
+WHERE cte1.a = cte2.c
+;
+WITH wtab1 AS (SELECT * FROM schema1.tab1) SELECT * FROM wtab1 CROSS JOIN db.wtab1
+;
+WITH tab1 AS (SELECT * FROM tab2) INSERT OVERWRITE tab3 SELECT * FROM tab1
+;
+WITH
+cte1 AS (SELECT a, b FROM tab1),
+cte2 AS (SELECT a, count(*) AS cnt FROM cte1 GROUP BY a)
+SELECT a, b, cnt FROM cte1 JOIN cte2
+WHERE cte1.a = cte2.a
+;
+WITH Cte1 AS (SELECT * FROM tab2) INSERT OVERWRITE TABLE tab3 SELECT * FROM CTE1
+;
+WITH wtab1 (SELECT * FROM schema1.tab1) SELECT * FROM wtab1
+;
+WITH wtab1 AS (SELECT * FROM schema1.tab1) SELECT * FROM wtab1
+;
+WITH wtab1 AS (SELECT * FROM schema1.tab1) SELECT * FROM wtab1 wt
+;
+WITH tab1 AS (SELECT * FROM tab2) INSERT INTO tab3 SELECT * FROM tab1
+;
+WITH tab1 AS (SELECT 1) SELECT * FROM tab1
+;
+WITH tab1 AS (SELECT * FROM tab2) INSERT OVERWRITE TABLE tab3 SELECT * FROM tab1
+;
+WITH tab1 AS (SELECT * FROM tab2) INSERT INTO TABLE tab3 SELECT * FROM tab1
+;
+INSERT OVERWRITE TABLE tab3
+SELECT col1
+FROM tab1
+UNION ALL
+SELECT col1
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab3
+SELECT col1
+FROM tab1
+UNION
+SELECT col1
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col0,
+       max(col3) OVER (PARTITION BY col1 ORDER BY col2 DESC) AS rnum,
+       col4
+FROM tab2
+;
+WITH
+cte1 AS (SELECT a FROM tab1),
+cte2 AS (SELECT a FROM cte1)
+INSERT OVERWRITE TABLE tab2
+SELECT a FROM cte2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT a.col1
+       --, a.col2
+       , a.col3
+FROM tab2 a
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1 + col2
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1 + col2 AS col3
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM tab2 a
+         INNER JOIN tab3 b
+                    ON a.id = b.id
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1 AS col2
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT tab2.col1 AS col2
+FROM tab2
+;
+WITH
+cte1 AS (SELECT a, b FROM tab1),
+cte2 AS (SELECT a, max(b) AS b_max, count(b) AS b_cnt FROM cte1 GROUP BY a)
+INSERT OVERWRITE TABLE tab2
+SELECT cte1.a, cte2.b_max, cte2.b_cnt FROM cte1 JOIN cte2
+WHERE cte1.a = cte2.a
+;
+INSERT OVERWRITE TABLE tab1
+SELECT CASE WHEN col1 = 1 THEN 'V1' WHEN col1 = 2 THEN 'V2' END
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT CASE WHEN col1 = 1 THEN 'V1' WHEN col1 = 2 THEN 'V2' END AS col2
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT CASE WHEN col1 = 1 THEN 'V1' WHEN col1 = 2 THEN 'V2' ELSE col_v END
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT CASE WHEN col1 = 1 THEN 'V1' WHEN col1 = 2 THEN 'V2' ELSE col_v END AS col2
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT a.col1 + a.col2 + a.col3 + a.col4
+FROM tab2 a
+;
+INSERT OVERWRITE TABLE tab1
+SELECT dt40.col1 FROM (SELECT dt39.col1 FROM (SELECT dt38.col1 FROM (SELECT dt37.col1 FROM (SELECT dt36.col1 FROM (SELECT dt35.col1 FROM (SELECT dt34.col1 FROM (SELECT dt33.col1 FROM (SELECT dt32.col1 FROM (SELECT dt31.col1 FROM (SELECT dt30.col1 FROM (SELECT dt29.col1 FROM (SELECT dt28.col1 FROM (SELECT dt27.col1 FROM (SELECT dt26.col1 FROM (SELECT dt25.col1 FROM (SELECT dt24.col1 FROM (SELECT dt23.col1 FROM (SELECT dt22.col1 FROM (SELECT dt21.col1 FROM (SELECT dt20.col1 FROM (SELECT dt19.col1 FROM (SELECT dt18.col1 FROM (SELECT dt17.col1 FROM (SELECT dt16.col1 FROM (SELECT dt15.col1 FROM (SELECT dt14.col1 FROM (SELECT dt13.col1 FROM (SELECT dt12.col1 FROM (SELECT dt11.col1 FROM (SELECT dt10.col1 FROM (SELECT dt9.col1 FROM (SELECT dt8.col1 FROM (SELECT dt7.col1 FROM (SELECT dt6.col1 FROM (SELECT dt5.col1 FROM (SELECT dt4.col1 FROM (SELECT dt3.col1 FROM (SELECT dt2.col1 FROM (SELECT dt1.col1 FROM (SELECT col1 FROM tab2) dt1) dt2) dt3) dt4) dt5) dt6) dt7) dt8) dt9) dt10) dt11) dt12) dt13) dt14) dt15) dt16) dt17) dt18) dt19) dt20) dt21) dt22) dt23) dt24) dt25) dt26) dt27) dt28) dt29) dt30) dt31) dt32) dt33) dt34) dt35) dt36) dt37) dt38) dt39) dt40
+;
+WITH wtab1 AS (SELECT col1 FROM tab2)
+INSERT OVERWRITE TABLE tab1
+SELECT wt.col1 FROM wtab1 wt
+;
+INSERT OVERWRITE TABLE tab1
+SELECT a.col1,
+       -- a.col2,
+       a.col3
+FROM tab2 a
+;
+WITH wtab1 AS (SELECT col1 FROM tab2)
+INSERT OVERWRITE TABLE tab1
+SELECT wtab1.col1 FROM wtab1
+;
+INSERT OVERWRITE TABLE tab1
+SELECT *
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT *
+FROM tab2 a
+         INNER JOIN tab3 b
+                    ON a.id = b.id
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1,
+col2
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT max(col1),
+max(col2)
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT if(col1 = 'foo' AND col2 = 'bar', 1, 0) AS flag
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT (col1 + col2) AS col3
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT max(col1),
+       count(*)
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT max(col1) AS col2,
+       count(*)  AS cnt
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT row_number() OVER (PARTITION BY col1 ORDER BY col2 DESC) AS rnum
+FROM tab2
+;
+INSERT INTO tab1
+SELECT rn FROM (
+    SELECT
+        row_number() OVER (PARTITION BY col1, col2) rn
+    FROM tab2
+) sub
+WHERE rn = 1
+;
+INSERT OVERWRITE TABLE tab3
+SELECT a.id,
+       a.name AS name1,
+       b.name AS name2
+FROM (SELECT id, name
+      FROM tab1) a,
+     (SELECT id, name
+      FROM tab2) b
+WHERE a.id = b.id
+;
+INSERT OVERWRITE TABLE tab1
+SELECT cast(col1 = 1 AS int) col1, col2 = col3 col2
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT A.Col1 AS col2, Tab3.col3
+FROM tab2 a
+         JOIN TAB3 ON a.id = tab3.id
+;
+INSERT OVERWRITE TABLE tab1
+SELECT cast('2012-12-21' as date) AS col2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT cast(col1 as timestamp)
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT cast(col1 as timestamp) as col2
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT a.col1 AS col2,
+       b.col1 AS col3
+FROM tab2 a
+         JOIN tab2 b
+              ON a.parent_id = b.id
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM ((SELECT col1 FROM tab2)) dt
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM (SELECT col1 FROM tab2) dt
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM (SELECT col1, col2 FROM tab2) dt
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM (SELECT col1 FROM tab2)
+;
+CREATE TABLE tab2 AS
+SELECT
+  coalesce(col1, 0) AS col1,
+  IF(
+    col1 IS NOT NULL,
+    1,
+    NULL
+  ) AS col2
+FROM
+  tab1
+;
+INSERT OVERWRITE TABLE tab1
+SELECT (col1 > 0 AND col2 > 0) AS col3
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT t.col1
+FROM tab2 AS t
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM (
+    (SELECT col1 FROM tab2)
+    UNION ALL
+    (SELECT col1 FROM tab3)
+) dt
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1,
+       col2 as,
+       col3
+FROM tab2
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM (
+    SELECT col1 FROM tab2
+    UNION ALL
+    SELECT col1 FROM tab3
+) dt
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM (
+(SELECT col1 FROM tab2)
+) dt
+;
+select swap_partitions_between_tables('staging', 'min-range-value', 'max-range-value', 'target')
+;
+INSERT OVERWRITE TABLE foo
+SELECT sc.id, q.item0, q.item1
+FROM bar sc
+LATERAL VIEW json_tuple(sc.json, 'key1', 'key2') q AS item0, item1
+;
+insert overwrite table tab1 select col1 from tab2
+;
+insert overwrite table tab3 select col1 from tab1
+;
+USE db1
+;
+DROP TABLE IF EXISTS tab1
+;
+uncache table tab1
+;
+CREATE TABLE IF NOT EXISTS tab1 (col1 STRING)
+;
+cache table tab1
+;
+create table tab_a as select * from tab_b
+;
+insert overwrite table tab_c select * from tab_a
+;
+drop table tab_a
+;
+insert overwrite table tab3 select * from tab1
+;
+alter table tab1 exchange partition(pt='part1') with table tab2
+;
+insert overwrite table db.tab1 select a.col1, b.col2 as col2 from tab2 a join (select col2 from tab3) b
+;
+with cte1 as (select col1 from tab4) insert overwrite table tab5 select col1 from cte1
+;
+insert overwrite table tab6 select col1 from tab6
+;
+alter table tab6 rename to tab7
+;
+drop table tab5
+;
+select col1 from tab8
+;
+create table tab_c as select * from tab_a
+;
+delete from table tab1
+;
+INSERT OVERWRITE TABLE tab1
+SELECT col1
+FROM (SELECT col1
+      FROM (SELECT col1 FROM tab2) /* inner */ dt1) dt2
+;
+alter table tab1 rename to tab3
+;
+insert overwrite tab4 select * from tab3
+;
+insert overwrite tab1 select * from tab2
+;
+--comment
+DROP TABLE IF EXISTS tab1
+;
+uncache table if exists tab1
+;
+refresh table tab1
+;
+truncate table tab1
+;
+insert overwrite tab2 select * from tab1
+;
+show create table tab1
+;
+insert overwrite table tab4 select col1 from tab4
+;
+alter table tab4 rename to tab5
+;
+insert overwrite table tab6 select col1 from tab3
+;
+drop table tab6
+;
+select col1 from tab7
+;
+create table tab8 (col1 int)
+;
+INSERT OVERWRITE TABLE foo
+SELECT sc.id, q.col1
+FROM bar sc
+LATERAL VIEW OUTER explode(sc.json_array) q AS col1
+;
+UPDATE tab1 SET col1='val1' WHERE col2='val2'
+;
+insert overwrite table tab_a
+select * from tab_b
+union all
+select * from TAB_B
+;
+alter table tab1 rename to tab2
+;
+SELECT * FROM tab1 CROSS JOIN tab2 on tab1.col1 = tab2.col2
+;
+SELECT col1 FROM
+tab1
+;
+SELECT trim(BOTH '  ' FROM '  abc  ')
+;
+SELECT * FROM tab1 LEFT SEMI JOIN tab2
+;
+SELECT * FROM (VALUES (1, 2)) AS t(col1, col2)
+;
+SELECT col1, col2 FROM tab1 GROUP BY col1, col2
+;
+SELECT * FROM tab1 INNER JOIN tab2
+;
+SELECT * FROM tab1 LEFT  JOIN tab2
+;
+SELECT * FROM `tab1`
+;
+SELECT * FROM (
+VALUES (1, 2))
+;
+SELECT * FROM tab1
+;
+SELECT col1
+FROM  -- comment
+tab1
+;
+select * from tab1 join --comment
+tab2 on tab1.x = tab2.x
+;
+SELECT COUNT(*) FROM tab1
+;
+SELECT 1
+;
+SELECT col1
+FROM tab1
+WHERE col1 IN (SELECT max(col1) FROM tab2)
+;
+SELECT * FROM (SELECT * FROM tab1) a, (SELECT * FROM tab2) b
+;
+SELECT * FROM tab1 WHERE col1 > val1 AND col2 = 'val2'
+;
+SELECT col1 FROM `schema1`.`tab1`
+;
+SELECT col1, col2 FROM tab1 GROUP BY 1, 2
+;
+SELECT trim(BOTH '  ' FROM col1) FROM tab1
+;
+SELECT * FROM tab1 CROSS JOIN tab2
+;
+SELECT * FROM tab1 FULL OUTER JOIN tab2
+;
+SELECT 1 FROM tab1 AS alias1
+;
+SELECT * FROM tab1 LEFT SEMI JOIN tab2 ON (tab1.col1 = tab2.col2)
+;
+SELECT -- comment1
+ col1 FROM tab1
+;
+SELECT col1 FROM (SELECT col1 FROM tab1)
+;
+SELECT NOW()
+;
+SELECT col1 FROM tab1 AS a LEFT JOIN tab2 AS b ON a.id=b.tab1_id WHERE col1 = (SELECT col1 FROM tab2 WHERE id = 1)
+;
+SELECT col1 FROM (((((((SELECT col1 FROM tab1))))))) dt
+;
+SELECT * FROM tab1 a, tab2 b
+;
+SELECT * FROM tab1 LEFT JOIN tab2
+;
+SELECT col1 FROM schema1.tab1
+;
+SELECT student, score FROM tests CROSS JOIN UNNEST(scores) AS t (score)
+;
+SELECT student, score FROM tests CROSS JOIN UNNEST (scores) AS t (score)
+;
+SELECT * FROM (VALUES (1, 2))
+;
+SELECT
+CASE WHEN (SELECT count(*) FROM tab1 WHERE col1 = 'tab2') = 1 THEN (SELECT count(*) FROM tab2) ELSE 0 END AS cnt
+;
+SELECT
+CASE WHEN 1 = (SELECT count(*) FROM tab1 WHERE col1 = 'tab2') THEN (SELECT count(*) FROM tab2) ELSE 0 END AS cnt
+;
+SELECT col1 FROM tab1
+;
+SELECT col1 FROM ((SELECT col1 FROM tab1)) dt
+;
+SELECT seq4(), uniform(1, 10, random(12))
+FROM table(generator()) v
+ORDER BY 1
+;
+SELECT * FROM tab1 JOIN tab2
+;
+SELECT col1 FROM (SELECT col1 FROM tab1) dt
+;
+SELECT col1 FROM ( SELECT col1 FROM tab1) dt
+;
+SELECT * FROM tab1 RIGHT JOIN tab2
+;
+SELECT 1 `as` FROM tab1
+;
+SELECT col1 FROM db1.schema1.tbl1
+;
+CREATE TABLE tab1 AS SELECT * FROM tab2
+;
+CREATE TABLE tab1 SELECT * FROM tab2
+;
+CREATE TABLE tab1 USING parquet CLUSTERED BY (col1) INTO 500 BUCKETS
+;
+CREATE TABLE tab1 AS (SELECT * FROM tab2)
+;
+CREATE TABLE tbl1 (col1 VARCHAR)
+WITH (bucketed_on = array['col1'], bucket_count = 256)
+;
+CREATE TABLE tab1 AS (SELECT * FROM (tab2))
+;
+CREATE TABLE tab1 LIKE tab2
+;
+CREATE TABLE tab1 (col1 STRING)
+;
+CREATE TABLE tab1 AS SELECT * FROM (tab2)
+;
+CREATE TABLE apachelog (
+  host STRING,
+  identity STRING,
+  user STRING,
+  time STRING,
+  request STRING,
+  status STRING,
+  size STRING,
+  referer STRING,
+  agent STRING)
+ROW FORMAT SERDE 'org.apache.hadoop.hive.serde2.RegexSerDe'
+WITH SERDEPROPERTIES (
+  "input.regex" = "([^]*) ([^]*) ([^]*) (-|\\[^\\]*\\]) ([^ \"]*|\"[^\"]*\") (-|[0-9]*) (-|[0-9]*)(?: ([^ \"]*|\".*\") ([^ \"]*|\".*\"))?"
+)
+STORED AS TEXTFILE
+;
+INSERT OVERWRITE tab1 VALUES ('val1', 'val2'), ('val3', 'val4')
+;
+INSERT INTO tab1 (col1, col2) SELECT * FROM tab2
+;
+INSERT INTO TABLE tab1 PARTITION (par1=1) SELECT * FROM tab2
+;
+INSERT OVERWRITE TABLE tab_1
+SELECT tab2.col_a from tab_2
+JOIN tab_1
+ON tab_1.col_a = tab_2.cola
+;
+INSERT OVERWRITE TABLE tab1 SELECT col1 FROM tab2
+;
+INSERT INTO tab1 VALUES (1, 2)
+;
+INSERT INTO TABLE tab1 VALUES (1, 2)
+;
+INSERT OVERWRITE TABLE foo
+SELECT col from foo
+WHERE flag IS NOT NULL
+;
+INSERT INTO default.tab2
+    (SELECT *
+    FROM tab1)
+;
+INSERT INTO tab1 (col1, col2) SELECT * FROM tab2 UNION SELECT * FROM tab3
+;
+INSERT INTO tab1 (col1, col2) (SELECT * FROM tab2 UNION SELECT * FROM tab3)
+;
+INSERT OVERWRITE tab1 SELECT * FROM tab2
+;
@@ -0,0 +1,43 @@
+package io.github.reata.sqllineage4j.benchmark;
+
+import io.github.reata.sqllineage4j.core.LineageRunner;
+import io.github.reata.sqllineage4j.parser.StatementSplitter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SqlWorkloadGeneratorTest {
+
+    private static SqlWorkloadGenerator.Builder settings(long seed) {
+        return SqlWorkloadGenerator.builder()
+                .seed(seed)
+                .statements(50)
+                .columns(5)
+                .joins(2)
+                .cteDepth(2)
+                .nesting(2);
+    }
+
+    @Test
+    public void testReproducible() {
+        assertEquals(settings(7).build().generate(), settings(7).build().generate());
+        assertNotEquals(settings(7).build().generate(), settings(8).build().generate());
+    }
+
+    @Test
+    public void testLineage() {
+        LineageRunner runner = LineageRunner.builder(settings(7).build().generate()).build();
+        // every written table is either read again later or left as a target
+        assertEquals(50, runner.targetTables().size() + runner.intermediateTables().size());
+        assertTrue(runner.sourceTables().stream().allMatch(table -> table.toString().startsWith("src.")));
+        assertEquals(50, runner.getStatementLineageHolders().size());
+    }
+
+    @Test
+    public void testDropRename() {
+        String sql = settings(7).dropRenameInterval(10).build().generate();
+        assertEquals(55, new StatementSplitter(sql).split().size());
+    }
+}
@@ -0,0 +1,157 @@
+package io.github.reata.sqllineage4j.cli;
+
+import io.github.reata.sqllineage4j.common.model.Column;
+import io.github.reata.sqllineage4j.common.model.Table;
+import io.github.reata.sqllineage4j.core.LineageRunner;
+import io.github.reata.sqllineage4j.core.cache.StatementCache;
+import io.github.reata.sqllineage4j.core.holder.SQLLineageHolder;
+import io.github.reata.sqllineage4j.core.holder.StatementLineageHolder;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
+import org.javatuples.Pair;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.github.reata.sqllineage4j.cli.utils.Helper.openSqlFile;
+
+/**
+ * Analyzes every .sql file under a directory within one JVM, files in parallel on a worker pool, and reports
+ * the lineage of each file followed by the lineage of all files merged together in path order.
+ * <p>
+ * Files are merged into the overall lineage as soon as they and all files before them are analyzed, and only a few
+ * files per worker are analyzed ahead, so memory does not grow with the number of files beyond the merged lineage.
+ */
+public class BatchRunner {
+    private static final int FILES_AHEAD_PER_WORKER = 4;
+
+    private final Path directory;
+    private final int parallelism;
+    private final StatementCache cache;
+    private final LineageGraphType graphType;
+
+    public BatchRunner(Path directory, int parallelism) {
+        this(directory, parallelism, null);
+    }
+
+    /**
+     * @param cache shared by all files, or null for none
+     */
+    public BatchRunner(Path directory, int parallelism, StatementCache cache) {
+        this(directory, parallelism, cache, LineageGraphType.GREMLIN);
+    }
+
+    /**
+     * @param cache     shared by all files, or null for none
+     * @param graphType used both for each file and for all files merged
+     */
+    public BatchRunner(Path directory, int parallelism, StatementCache cache, LineageGraphType graphType) {
+        this.directory = directory;
+        this.parallelism = parallelism;
+        this.cache = cache;
+        this.graphType = graphType;
+    }
+
+    public void run(PrintStream out) {
+        List<Path> files = listSqlFiles();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+        SQLLineageHolder lineage = SQLLineageHolder.of(graphType);
+        int statements = 0;
+        int failed = 0;
+        try {
+            Deque<CompletableFuture<FileLineage>> pending = new ArrayDeque<>();
+            int submitted = 0;
+            for (int i = 0; i < files.size(); i++) {
+                while (submitted < files.size() && submitted < i + parallelism * FILES_AHEAD_PER_WORKER) {
+                    Path file = files.get(submitted++);
+                    pending.add(CompletableFuture.supplyAsync(() -> analyze(file), pool));
+                }
+                Path file = directory.relativize(files.get(i));
+                FileLineage fileLineage;
+                try {
+                    fileLineage = pending.remove().join();
+                } catch (CompletionException e) {
+                    // one broken file should not take down the lineage of all others
+                    out.println(file + ": failed, " + e.getCause());
+                    failed++;
+                    continue;
+                }
+                lineage.add(fileLineage.holders);
+                statements += fileLineage.holders.length;
+                out.println(file + ": statements " + fileLineage.holders.length
+                        + ", source " + format(fileLineage.sourceTables)
+                        + ", target " + format(fileLineage.targetTables));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        StringBuilder summary = new StringBuilder("==========\nSummary:\n")
+                .append("Files(#): ").append(files.size()).append(failed > 0 ? " (" + failed + " failed)" : "").append("\n")
+                .append("Statements(#): ").append(statements).append("\n")
+                .append("Source Tables:\n").append(formatLines(lineage.getSourceTables()))
+                .append("Target Tables:\n").append(formatLines(lineage.getTargetTables()));
+        if (lineage.getIntermediateTables().size() > 0) {
+            summary.append("Intermediate Tables:\n").append(formatLines(lineage.getIntermediateTables()));
+        }
+        Set<Pair<Column, Column>> columnLineage = lineage.getColumnLineagePairs(true);
+        if (columnLineage.size() > 0) {
+            summary.append("Column Lineage:\n").append(columnLineage.stream()
+                    .map(pair -> "    " + pair.getValue1() + " <- " + pair.getValue0() + "\n")
+                    .sorted().collect(Collectors.joining()));
+        }
+        out.println(summary);
+    }
+
+    private List<Path> listSqlFiles() {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".sql"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private FileLineage analyze(Path file) {
+        try (Reader reader = openSqlFile(file)) {
+            LineageRunner runner = LineageRunner.builder(reader).graphType(graphType).cache(cache).build();
+            // keep what is reported rather than the runner, whose combined graph is not needed once the file is merged
+            return new FileLineage(runner.getStatementLineageHolders().toArray(StatementLineageHolder[]::new),
+                    runner.sourceTables(), runner.targetTables());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String format(Collection<Table> tables) {
+        return tables.stream().map(Table::toString).sorted().collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static String formatLines(Collection<Table> tables) {
+        return tables.stream().map(t -> "    " + t.toString() + "\n").sorted().collect(Collectors.joining());
+    }
+
+    private static final class FileLineage {
+        private final StatementLineageHolder[] holders;
+        private final List<Table> sourceTables;
+        private final List<Table> targetTables;
+
+        private FileLineage(StatementLineageHolder[] holders, List<Table> sourceTables, List<Table> targetTables) {
+            this.holders = holders;
+            this.sourceTables = sourceTables;
+            this.targetTables = targetTables;
+        }
+    }
+}
@@ -1,31 +1,94 @@
 package io.github.reata.sqllineage4j.cli;
 
 import io.github.reata.sqllineage4j.core.LineageRunner;
+import io.github.reata.sqllineage4j.core.cache.DiskStatementCache;
+import io.github.reata.sqllineage4j.core.metrics.LineageProfile;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
 import org.apache.commons.cli.*;
 
-import static io.github.reata.sqllineage4j.cli.utils.Helper.extractSqlFromArgs;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static io.github.reata.sqllineage4j.cli.utils.Helper.extractSqlFilesFromArgs;
+import static io.github.reata.sqllineage4j.cli.utils.Helper.readSqlFiles;
 
 public class SQLLineage4j {
 
     public static void main(String[] args) {
         Options options = new Options();
         Option exec = Option.builder("e").argName("quoted-query-string").hasArg().desc("SQL from command line").build();
-        Option file = Option.builder("f").argName("filename").hasArg().desc("SQL from files").build();
+        Option file = Option.builder("f").argName("filename").hasArgs().desc("SQL from files, glob patterns like 'dir/**.sql' are expanded").build();
         Option verbose = Option.builder("v").longOpt("verbose").desc("increase output verbosity, show statement level lineage result").build();
+        Option directory = Option.builder("d").longOpt("directory").argName("dirname").hasArg().desc("batch mode, SQL from all .sql files under the directory").build();
+        Option parallelism = Option.builder("p").longOpt("parallelism").argName("threads").hasArg().desc("number of files analyzed concurrently in batch mode, defaults to number of processors").build();
+        Option output = Option.builder("o").longOpt("output").argName("filename").hasArg().desc("write batch mode report to file instead of standard output").build();
         options.addOption(exec);
         options.addOption(file);
         options.addOption(verbose);
+        options.addOption(directory);
+        options.addOption(parallelism);
+        Option profile = Option.builder().longOpt("profile").argName("n").hasArg().optionalArg(true).desc("print time spent in each phase and the n slowest statements, 10 by default").build();
+        Option cache = Option.builder("c").longOpt("cache").argName("dirname").hasArg().desc("keep statement lineage in the directory, and reuse it for statements seen in earlier runs").build();
+        Option graph = Option.builder("g").longOpt("graph").argName("type").hasArg().desc("lineage graph implementation, gremlin (default) or native").build();
+        options.addOption(output);
+        options.addOption(profile);
+        options.addOption(cache);
+        options.addOption(graph);
 
         CommandLineParser parser = new DefaultParser();
         try {
             CommandLine cmd = parser.parse(options, args);
+            if (cmd.hasOption("d")) {
+                if (cmd.hasOption("e") || cmd.hasOption("f")) {
+                    System.out.println("-d option is specified. -e and -f options will be ignored");
+                }
+                if (cmd.hasOption("profile")) {
+                    System.out.println("--profile option is not supported in batch mode and will be ignored");
+                }
+                runBatch(cmd);
+                return;
+            }
             if (cmd.hasOption("e") && cmd.hasOption("f")) {
                 System.out.println("Both -e and -f options are specified. -e option will be ignored");
             }
             if (cmd.hasOption("e") || cmd.hasOption("f")) {
-                String sql = extractSqlFromArgs(cmd);
-                LineageRunner runner = cmd.hasOption("v") ? LineageRunner.builder(sql).verbose().build() : LineageRunner.builder(sql).build();
-                runner.printTableLineage();
+                LineageRunner.Builder builder = cmd.hasOption("f")
+                        ? LineageRunner.builder(readSqlFiles(extractSqlFilesFromArgs(cmd)))
+                        : LineageRunner.builder(cmd.getOptionValue("e"));
+                LineageProfile lineageProfile = null;
+                int slowest = 0;
+                if (cmd.hasOption("profile")) {
+                    try {
+                        slowest = Integer.parseInt(cmd.getOptionValue("profile", "10"));
+                    } catch (NumberFormatException e) {
+                        slowest = -1;
+                    }
+                    if (slowest < 0) {
+                        System.err.println("Invalid number of statements to profile: " + cmd.getOptionValue("profile"));
+                        System.exit(1);
+                    }
+                    lineageProfile = new LineageProfile(true);
+                    builder.metrics(lineageProfile);
+                }
+                builder.graphType(graphType(cmd));
+                if (cmd.hasOption("c")) {
+                    builder.cache(new DiskStatementCache(Paths.get(cmd.getOptionValue("c"))));
+                }
+                LineageRunner runner = cmd.hasOption("v") ? builder.verbose().build() : builder.build();
+                try {
+                    runner.printTableLineage();
+                    if (lineageProfile != null) {
+                        lineageProfile.print(System.out, slowest);
+                    }
+                } catch (UncheckedIOException e) {
+                    e.printStackTrace();
+                    System.exit(1);
+                }
             } else {
                 HelpFormatter formatter = new HelpFormatter();
                 formatter.printHelp("sqllineage4j", options);
@@ -34,4 +97,47 @@ public class SQLLineage4j {
             throw new RuntimeException(e);
         }
     }
+
+    private static void runBatch(CommandLine cmd) {
+        Path dir = Paths.get(cmd.getOptionValue("d"));
+        if (!Files.isDirectory(dir)) {
+            System.err.println("Not a directory: " + dir);
+            System.exit(1);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (cmd.hasOption("p")) {
+            try {
+                threads = Integer.parseInt(cmd.getOptionValue("p"));
+            } catch (NumberFormatException e) {
+                threads = 0;
+            }
+            if (threads < 1) {
+                System.err.println("Invalid parallelism: " + cmd.getOptionValue("p"));
+                System.exit(1);
+            }
+        }
+        BatchRunner runner = new BatchRunner(dir, threads,
+                cmd.hasOption("c") ? new DiskStatementCache(Paths.get(cmd.getOptionValue("c"))) : null, graphType(cmd));
+        if (cmd.hasOption("o")) {
+            try (PrintStream out = new PrintStream(cmd.getOptionValue("o"), StandardCharsets.UTF_8)) {
+                runner.run(out);
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.exit(1);
+            }
+        } else {
+            runner.run(System.out);
+        }
+    }
+
+    private static LineageGraphType graphType(CommandLine cmd) {
+        String type = cmd.getOptionValue("g", LineageGraphType.GREMLIN.name());
+        try {
+            return LineageGraphType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid graph type: " + type);
+            System.exit(1);
+            return null;
+        }
+    }
 }
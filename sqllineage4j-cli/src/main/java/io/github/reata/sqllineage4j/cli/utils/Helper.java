@@ -2,33 +2,93 @@ package io.github.reata.sqllineage4j.cli.utils;
 
 import org.apache.commons.cli.CommandLine;
 
-import java.io.BufferedReader;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class Helper {
-    public static String extractSqlFromArgs(CommandLine cmd) {
-        StringBuilder sql = new StringBuilder();
-        if (cmd.getOptionValue("f") != null) {
-            String file = cmd.getOptionValue("f");
-            try {
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                String line = reader.readLine();
-                while (line != null) {
-                    sql.append(line);
-                    sql.append(System.lineSeparator());
-                    line = reader.readLine();
-                }
-            } catch (FileNotFoundException e) {
-                e.printStackTrace();
-                System.exit(1);
-            } catch (IOException e) {
+    private static final Pattern GLOB_SYNTAX = Pattern.compile("[*?\\[{]");
+
+    /**
+     * Resolve each -f argument, either a file or a glob pattern like {@code models/**.sql}, to regular files.
+     * Exits with status 1 if an argument is not a readable file or a glob matches nothing.
+     */
+    public static List<Path> extractSqlFilesFromArgs(CommandLine cmd) {
+        Set<Path> files = new LinkedHashSet<>();
+        for (String arg : cmd.getOptionValues("f")) {
+            List<Path> matched = GLOB_SYNTAX.matcher(arg).find() ? expandGlob(arg) : List.of(Paths.get(arg));
+            if (matched.isEmpty()) {
+                System.err.println("No file matches " + arg);
                 System.exit(1);
             }
-        } else if (cmd.getOptionValue("e") != null) {
-            sql.append(cmd.getOptionValue("e"));
+            for (Path path : matched) {
+                if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+                    System.err.println("Cannot read file " + path);
+                    System.exit(1);
+                }
+                files.add(path);
+            }
+        }
+        return new ArrayList<>(files);
+    }
+
+    /**
+     * Contents of the given files, each read in full and decoded as UTF-8 only when iterated to, so that no more
+     * than one file is held in memory at a time.
+     */
+    public static Iterable<String> readSqlFiles(List<Path> files) {
+        return () -> files.stream().map(Helper::readSqlFile).iterator();
+    }
+
+    public static String readSqlFile(Path file) {
+        try {
+            // unlike Files.readString, malformed input is replaced rather than rejected
+            return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reader decoding the given file as UTF-8 a buffer at a time, for
+     * {@link io.github.reata.sqllineage4j.core.LineageRunner#builder(Reader)} to split the file without holding all
+     * of it in memory.
+     */
+    public static Reader openSqlFile(Path file) {
+        try {
+            return new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<Path> expandGlob(String glob) {
+        // walk from the longest leading part of the pattern that has no glob syntax in it
+        String[] parts = glob.split(Pattern.quote(File.separator) + "|/");
+        int fixed = 0;
+        while (fixed < parts.length - 1 && !GLOB_SYNTAX.matcher(parts[fixed]).find()) {
+            fixed++;
+        }
+        String base = String.join(File.separator, Arrays.copyOfRange(parts, 0, fixed));
+        boolean relative = base.isEmpty() && !glob.startsWith("/");
+        Path root = Paths.get(relative ? "." : base.isEmpty() ? "/" : base);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher(
+                "glob:" + String.join("/", Arrays.copyOfRange(parts, fixed, parts.length)));
+        if (!Files.isDirectory(root)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(root.relativize(path)))
+                    .map(path -> relative ? root.relativize(path) : path)
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return sql.toString();
     }
 }
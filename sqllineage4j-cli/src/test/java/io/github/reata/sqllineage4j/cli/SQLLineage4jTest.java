@@ -6,6 +6,11 @@ import org.junit.Test;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -31,6 +36,109 @@ public class SQLLineage4jTest {
         }
     }
 
+    @Test
+    public void testCliMultipleFiles() throws Exception {
+        Path dir = Files.createTempDirectory("test");
+        Path first = dir.resolve("first.sql");
+        Path sub = dir.resolve("sub");
+        Path second = sub.resolve("second.sql");
+        try {
+            Files.writeString(first, "insert overwrite table foo select * from dual");
+            Files.createDirectory(sub);
+            Files.writeString(second, "insert overwrite table bar select * from foo");
+            String summary = "Statements(#): 2\n" +
+                    "Source Tables:\n    <default>.dual\n" +
+                    "Target Tables:\n    <default>.bar\n" +
+                    "Intermediate Tables:\n    <default>.foo\n";
+            String output = SystemLambda.tapSystemOut(() -> SQLLineage4j.main(new String[]{"-f", first.toString(), second.toString()}));
+            assertTrue(output, output.contains(summary));
+            // ** crosses directories, so the glob picks up sub/second.sql as well
+            output = SystemLambda.tapSystemOut(() -> SQLLineage4j.main(new String[]{"-f", dir + "/**.sql", "-v"}));
+            assertTrue(output, output.contains(summary));
+            assertTrue(output, output.contains("Statement #2: insert overwrite table bar select * from foo"));
+        } finally {
+            Files.deleteIfExists(second);
+            Files.deleteIfExists(sub);
+            Files.deleteIfExists(first);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void testCliBatchDirectory() throws Exception {
+        Path dir = Files.createTempDirectory("test");
+        Path first = dir.resolve("first.sql");
+        Path second = dir.resolve("second.sql");
+        Path report = dir.resolve("report.txt");
+        try {
+            Files.writeString(first, "insert overwrite table foo select * from dual");
+            Files.writeString(second, "insert overwrite table bar select * from foo");
+            SQLLineage4j.main(new String[]{"-d", dir.toString(), "-o", report.toString()});
+            String content = Files.readString(report);
+            assertTrue(content, content.contains("first.sql: statements 1, source [<default>.dual], target [<default>.foo]\n" +
+                    "second.sql: statements 1, source [<default>.foo], target [<default>.bar]\n"));
+            assertTrue(content, content.contains("Files(#): 2\nStatements(#): 2\n"));
+            assertTrue(content, content.contains("Intermediate Tables:\n    <default>.foo\n"));
+            Files.writeString(second, "insert overwrite table bar select col1 from foo");
+            Files.writeString(first, "insert overwrite table foo select col1 from dual");
+            SQLLineage4j.main(new String[]{"-d", dir.toString(), "-g", "native", "-o", report.toString()});
+            content = Files.readString(report);
+            assertTrue(content, content.contains("Column Lineage:\n    <default>.bar.col1 <- <default>.dual.col1\n"));
+        } finally {
+            Files.deleteIfExists(report);
+            Files.deleteIfExists(second);
+            Files.deleteIfExists(first);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void testCliBatchParallel() throws Exception {
+        Path dir = Files.createTempDirectory("test");
+        List<Path> files = new ArrayList<>();
+        try {
+            // more files than the workers analyze ahead, each depending on the one before, and a table dropped
+            // and recreated in between, so that merging out of order would show
+            for (int i = 0; i < 20; i++) {
+                String sql = i == 10 ? "drop table tab5"
+                        : "insert overwrite table tab" + (i + 1) + " select col1 from tab" + i;
+                files.add(Files.writeString(dir.resolve(String.format("file%02d.sql", i)), sql));
+            }
+            String sequential = SystemLambda.tapSystemOut(() -> SQLLineage4j.main(new String[]{"-d", dir.toString(), "-p", "1"}));
+            String parallel = SystemLambda.tapSystemOut(() -> SQLLineage4j.main(new String[]{"-d", dir.toString(), "-p", "2"}));
+            assertTrue(parallel, parallel.startsWith("file00.sql: statements 1, source [<default>.tab0], target [<default>.tab1]\n"));
+            assertTrue(parallel, parallel.contains("Files(#): 20\nStatements(#): 20\n"));
+            assertTrue(parallel, parallel.contains("Column Lineage:\n"));
+            assertEquals(sequential, parallel);
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void testCliProfile() throws Exception {
+        String testSql = "insert overwrite table foo select * from dual; insert overwrite table bar select * from foo";
+        String output = SystemLambda.tapSystemOut(() -> SQLLineage4j.main(new String[]{"-e", testSql, "--profile", "1"}));
+        assertTrue(output.contains("Profile:\n    Statements Analyzed(#): 2\n"));
+        assertEquals(1, output.split("Statement #").length - 1);
+        // 10 slowest statements by default
+        String longSql = String.join(";\n", Collections.nCopies(12, "insert overwrite table foo select * from dual"));
+        output = SystemLambda.tapSystemOut(() -> SQLLineage4j.main(new String[]{"-e", longSql, "--profile"}));
+        assertTrue(output, output.contains("Profile:\n    Statements Analyzed(#): 12\n"));
+        assertEquals(10, output.split("Statement #").length - 1);
+    }
+
+    @Test
+    public void testGlobMatchesNothing() throws Exception {
+        Path dir = Files.createTempDirectory("test");
+        int statusCode = SystemLambda.catchSystemExit(() -> SQLLineage4j.main(new String[]{"-f", dir + "/*.sql"}));
+        assertEquals(1, statusCode);
+        Files.delete(dir);
+    }
+
     @Test
     public void testFileException() throws Exception {
         int statusCode = SystemLambda.catchSystemExit(() -> SQLLineage4j.main(new String[]{"-f", "nonexist_file"}));
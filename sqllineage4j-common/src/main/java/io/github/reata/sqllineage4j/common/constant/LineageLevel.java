@@ -0,0 +1,13 @@
+package io.github.reata.sqllineage4j.common.constant;
+
+public enum LineageLevel {
+    /**
+     * Table lineage only, select items are not analyzed and no column vertex is created.
+     */
+    TABLE,
+
+    /**
+     * Table and column lineage.
+     */
+    COLUMN
+}
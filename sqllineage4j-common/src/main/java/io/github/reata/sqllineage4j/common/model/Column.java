@@ -6,44 +6,92 @@ import javax.annotation.Nullable;
 import java.util.*;
 
 import static io.github.reata.sqllineage4j.common.utils.Helper.escapeIdentifierName;
+import static io.github.reata.sqllineage4j.common.utils.Helper.normalizeIdentifierName;
+import static io.github.reata.sqllineage4j.common.utils.NamePool.intern;
 
 
+/**
+ * A column, qualified by the table or subquery it belongs to once that is resolved.
+ * <p>
+ * Parents are collected with {@link #setParent} while the query is analyzed. The column is finalized the first time
+ * it is compared or hashed, e.g. when added to a graph: from then on its parent and qualified name are fixed,
+ * and setting a different parent is an error.
+ */
 public class Column {
     private final Set<QuerySet> parent = new HashSet<>();
     private final String rawName;
     private final List<ColumnQualifierTuple> sourceColumns = new ArrayList<>();
+    // set once finalized, never changes afterwards
+    private volatile String qualifiedName;
+    private QuerySet resolvedParent;
+    private int hash;
 
     public Column(String name) {
-        this.rawName = escapeIdentifierName(name);
+        this.rawName = intern(escapeIdentifierName(name));
     }
 
     @Override
     public String toString() {
-        if (getParent() != null) {
-            return getParent().toString() + "." + rawName.toLowerCase();
-        } else {
-            return rawName.toLowerCase();
-        }
+        String name = qualifiedName;
+        return name != null ? name : qualify(getParent());
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof Column && this.toString().equals(obj.toString());
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Column)) {
+            return false;
+        }
+        Column other = (Column) obj;
+        return hashCode() == other.hashCode() && qualifiedName.equals(other.qualifiedName);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.toString());
+        if (qualifiedName == null) {
+            finalizeParent();
+        }
+        return hash;
+    }
+
+    public String getRawName() {
+        return rawName;
     }
 
     public @Nullable QuerySet getParent() {
-        return parent.size() == 1 ? List.copyOf(parent).get(0) : null;
+        if (qualifiedName != null) {
+            return resolvedParent;
+        }
+        return parent.size() == 1 ? parent.iterator().next() : null;
     }
 
     public void setParent(QuerySet table) {
+        if (qualifiedName != null) {
+            if (!parent.contains(table)) {
+                throw new IllegalStateException("parent of column " + qualifiedName + " can no longer change");
+            }
+            return;
+        }
         parent.add(table);
     }
 
+    private synchronized void finalizeParent() {
+        if (qualifiedName == null) {
+            resolvedParent = getParent();
+            String name = intern(qualify(resolvedParent));
+            hash = name.hashCode();
+            // written last, publishing the other fields along with it
+            qualifiedName = name;
+        }
+    }
+
+    private String qualify(@Nullable QuerySet parent) {
+        String name = normalizeIdentifierName(rawName);
+        return parent != null ? parent.toString() + "." + name : name;
+    }
+
     public void setSourceColumns(ColumnQualifierTuple cqt) {
         sourceColumns.add(cqt);
     }
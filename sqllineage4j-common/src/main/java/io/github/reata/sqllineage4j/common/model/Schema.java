@@ -1,32 +1,47 @@
 package io.github.reata.sqllineage4j.common.model;
 
-import java.util.Objects;
-
 import static io.github.reata.sqllineage4j.common.utils.Helper.escapeIdentifierName;
+import static io.github.reata.sqllineage4j.common.utils.Helper.normalizeIdentifierName;
+import static io.github.reata.sqllineage4j.common.utils.NamePool.intern;
 
 public final class Schema {
     private final String rawName;
+    private final String name;
+    private final int hash;
 
     public Schema() {
-        rawName = "<default>";
+        this("<default>");
     }
 
     public Schema(String name) {
-        rawName = escapeIdentifierName(name);
+        this.rawName = intern(escapeIdentifierName(name));
+        this.name = intern(normalizeIdentifierName(rawName));
+        this.hash = this.name.hashCode();
+    }
+
+    public String getRawName() {
+        return rawName;
     }
 
     @Override
     public String toString() {
-        return rawName.toLowerCase();
+        return name;
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof Schema && this.toString().equals(obj.toString());
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Schema)) {
+            return false;
+        }
+        Schema other = (Schema) obj;
+        return hash == other.hash && name.equals(other.name);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.toString());
+        return hash;
     }
 }
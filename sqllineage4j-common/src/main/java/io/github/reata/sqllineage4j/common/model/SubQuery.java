@@ -1,34 +1,79 @@
 package io.github.reata.sqllineage4j.common.model;
 
+import io.github.reata.sqllineage4j.common.utils.Fingerprint;
+
+import javax.annotation.Nullable;
+import java.util.function.Supplier;
+
+/**
+ * A subquery or CTE, identified by the {@link Fingerprint} and length of its text, so that the same query compares
+ * equal wherever it appears. Fingerprints are taken modulo a 61 bit prime, so different queries of the same length
+ * collide with negligible probability. The text itself is only produced on request, for display.
+ */
 public final class SubQuery implements QuerySet {
-    private final String query;
+    private final long fingerprint;
+    private final int length;
+    private final Supplier<String> query;
     private final String alias;
+    private final String name;
 
     public SubQuery(String query, String alias) {
+        this(Fingerprint.of(query), query.length(), () -> query, alias);
+    }
+
+    /**
+     * @param query text of the query, or null if no longer available, e.g. when read back from a serialized graph
+     */
+    public SubQuery(long fingerprint, int length, @Nullable Supplier<String> query, String alias) {
+        this.fingerprint = fingerprint;
+        this.length = length;
         this.query = query;
         if (alias == null) {
-            alias = "subquery_" + query.hashCode();
+            alias = "subquery_" + Long.hashCode(fingerprint);
         }
         this.alias = alias;
+        this.name = alias.toLowerCase();
+    }
+
+    /**
+     * The same query under another alias.
+     */
+    public SubQuery withAlias(String alias) {
+        return new SubQuery(fingerprint, length, query, alias);
     }
 
     @Override
     public String toString() {
-        return alias;
+        return name;
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof SubQuery && this.query.equals(((SubQuery) obj).getQuery());
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SubQuery)) {
+            return false;
+        }
+        SubQuery other = (SubQuery) obj;
+        return fingerprint == other.fingerprint && length == other.length;
     }
 
     @Override
     public int hashCode() {
-        return query.hashCode();
+        return Long.hashCode(fingerprint);
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getLength() {
+        return length;
     }
 
-    public String getQuery() {
-        return query;
+    public @Nullable String getQuery() {
+        return query == null ? null : query.get();
     }
 
     public String getAlias() {
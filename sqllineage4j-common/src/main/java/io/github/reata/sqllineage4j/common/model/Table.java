@@ -1,14 +1,16 @@
 package io.github.reata.sqllineage4j.common.model;
 
-import java.util.Objects;
-
 import static io.github.reata.sqllineage4j.common.utils.Helper.escapeIdentifierName;
+import static io.github.reata.sqllineage4j.common.utils.Helper.normalizeIdentifierName;
+import static io.github.reata.sqllineage4j.common.utils.NamePool.intern;
 
 public final class Table implements QuerySet {
     private final String rawName;
 
     private final String alias;
-    private Schema schema = new Schema();
+    private final Schema schema;
+    private final String qualifiedName;
+    private final int hash;
 
     public Table(String name) {
         this(name, name);
@@ -20,26 +22,55 @@ public final class Table implements QuerySet {
             String schemaName = name.substring(0, pos + 1);
             String tableName = name.substring(pos + 1);
             this.schema = new Schema(schemaName);
-            this.rawName = escapeIdentifierName(tableName);
+            this.rawName = intern(escapeIdentifierName(tableName));
         } else {
-            this.rawName = escapeIdentifierName(name);
+            this.schema = new Schema();
+            this.rawName = intern(escapeIdentifierName(name));
         }
         this.alias = alias;
+        this.qualifiedName = intern(schema.toString() + "." + normalizeIdentifierName(rawName));
+        this.hash = qualifiedName.hashCode();
+    }
+
+    /**
+     * Table with the given schema, and a name which is taken as is, without looking for a schema in it.
+     */
+    public Table(Schema schema, String name, String alias) {
+        this.schema = schema;
+        this.rawName = intern(escapeIdentifierName(name));
+        this.alias = alias;
+        this.qualifiedName = intern(schema.toString() + "." + normalizeIdentifierName(rawName));
+        this.hash = qualifiedName.hashCode();
     }
 
     @Override
     public String toString() {
-        return schema.toString() + "." + rawName.toLowerCase();
+        return qualifiedName;
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof Table && this.toString().equals(obj.toString());
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Table)) {
+            return false;
+        }
+        Table other = (Table) obj;
+        return hash == other.hash && qualifiedName.equals(other.qualifiedName);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(this.toString());
+        return hash;
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    public String getRawName() {
+        return rawName;
     }
 
     @Override
@@ -0,0 +1,73 @@
+package io.github.reata.sqllineage4j.common.utils;
+
+/**
+ * Polynomial rolling hash of text modulo the Mersenne prime 2<sup>61</sup>-1, identifying queries without comparing
+ * their text character by character. Unlike a hash modulo 2<sup>64</sup>, it has no known family of colliding inputs,
+ * such as Thue-Morse strings, whatever the base.
+ * <p>
+ * The fingerprint of a concatenation can be computed from the fingerprints of its parts, see {@link #concat}.
+ * That way the fingerprints of all subqueries of a statement can be derived from prefix fingerprints of its tokens,
+ * computed in a single pass, rather than by hashing the text of each subquery again.
+ */
+public final class Fingerprint {
+    private static final long MODULUS = (1L << 61) - 1;
+    private static final long BASE = 0x100000001b3L;
+
+    private Fingerprint() {
+    }
+
+    public static long of(CharSequence text) {
+        return append(0L, text);
+    }
+
+    /**
+     * @return fingerprint of the text fingerprinted so far followed by the given text
+     */
+    public static long append(long fingerprint, CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            fingerprint = add(multiply(fingerprint, BASE), text.charAt(i));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * @return fingerprint of the concatenation of two texts, given their fingerprints and the length of the second
+     */
+    public static long concat(long first, long second, int secondLength) {
+        return add(multiply(first, power(secondLength)), second);
+    }
+
+    /**
+     * @return fingerprint of the text which follows the prefix in the given text, i.e. the reverse of {@link #concat}
+     */
+    public static long suffix(long text, long prefix, int suffixLength) {
+        return add(text, MODULUS - multiply(prefix, power(suffixLength)));
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum >= MODULUS ? sum - MODULUS : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        // the 122 bit product is high * 2^64 + low, and 2^61 is 1 modulo 2^61-1
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        long folded = (low & MODULUS) + (low >>> 61 | high << 3);
+        folded = (folded & MODULUS) + (folded >>> 61);
+        return folded >= MODULUS ? folded - MODULUS : folded;
+    }
+
+    private static long power(int exponent) {
+        long result = 1L;
+        long base = BASE;
+        while (exponent > 0) {
+            if ((exponent & 1) != 0) {
+                result = multiply(result, base);
+            }
+            base = multiply(base, base);
+            exponent >>= 1;
+        }
+        return result;
+    }
+}
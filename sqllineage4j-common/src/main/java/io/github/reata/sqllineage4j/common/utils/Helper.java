@@ -1,7 +1,68 @@
 package io.github.reata.sqllineage4j.common.utils;
 
+import java.util.Locale;
+
 public final class Helper {
+    /**
+     * Strip backquotes, single and double quotes from the given name.
+     *
+     * @return the name itself if there is nothing to strip
+     */
     public static String escapeIdentifierName(String name) {
-        return name.replaceAll("`", "").replaceAll("'", "").replaceAll("\"", "");
+        int length = name.length();
+        int i = 0;
+        while (i < length && !isQuote(name.charAt(i))) {
+            i++;
+        }
+        if (i == length) {
+            return name;
+        }
+        StringBuilder escaped = new StringBuilder(length - 1).append(name, 0, i);
+        for (; i < length; i++) {
+            char c = name.charAt(i);
+            if (!isQuote(c)) {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * Strip quotes like {@link #escapeIdentifierName} and lower-case the name, in a single pass for ASCII names.
+     *
+     * @return the name itself if it is already stripped and lower case
+     */
+    public static String normalizeIdentifierName(String name) {
+        int length = name.length();
+        int i = 0;
+        char c = 0;
+        while (i < length && (c = name.charAt(i)) < 128 && !isQuote(c) && (c < 'A' || c > 'Z')) {
+            i++;
+        }
+        if (i == length) {
+            return name;
+        }
+        if (c >= 128) {
+            // case folding beyond ASCII is left to the JDK
+            return escapeIdentifierName(name).toLowerCase(Locale.ROOT);
+        }
+        char[] normalized = new char[length];
+        name.getChars(0, i, normalized, 0);
+        int size = i;
+        for (; i < length; i++) {
+            c = name.charAt(i);
+            if (c >= 128) {
+                return escapeIdentifierName(name).toLowerCase(Locale.ROOT);
+            }
+            if (isQuote(c)) {
+                continue;
+            }
+            normalized[size++] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(normalized, 0, size);
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '`' || c == '\'' || c == '"';
     }
 }
@@ -0,0 +1,59 @@
+package io.github.reata.sqllineage4j.common.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Canonical instances of identifier names, so that the same table or column seen in many statements is kept in
+ * memory once rather than once per statement. Names are only weakly referenced: those no longer used by any
+ * lineage are garbage collected as usual.
+ * <p>
+ * The pool is split into segments, each with its own lock, so that threads analyzing statements in parallel
+ * seldom wait for each other.
+ */
+public final class NamePool {
+    private static final int SEGMENTS = 16;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Map<String, WeakReference<String>>[] POOL = new Map[SEGMENTS];
+
+    static {
+        for (int i = 0; i < SEGMENTS; i++) {
+            POOL[i] = new WeakHashMap<>();
+        }
+    }
+
+    private NamePool() {
+    }
+
+    /**
+     * @return the pooled instance equal to the given name, which becomes the pooled instance if there is none yet
+     */
+    public static String intern(String name) {
+        Map<String, WeakReference<String>> segment = POOL[(name.hashCode() & Integer.MAX_VALUE) % SEGMENTS];
+        synchronized (segment) {
+            WeakReference<String> ref = segment.get(name);
+            String pooled = ref == null ? null : ref.get();
+            if (pooled == null) {
+                // the value must not hold the key strongly, or it would never be collected
+                segment.put(name, new WeakReference<>(name));
+                pooled = name;
+            }
+            return pooled;
+        }
+    }
+
+    /**
+     * Number of names in the pool, including those collected but not yet purged.
+     */
+    public static int size() {
+        int size = 0;
+        for (Map<String, WeakReference<String>> segment : POOL) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+}
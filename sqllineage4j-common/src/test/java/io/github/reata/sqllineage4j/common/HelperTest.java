@@ -0,0 +1,53 @@
+package io.github.reata.sqllineage4j.common;
+
+import io.github.reata.sqllineage4j.common.utils.Fingerprint;
+import org.junit.Test;
+
+import static io.github.reata.sqllineage4j.common.utils.Helper.escapeIdentifierName;
+import static io.github.reata.sqllineage4j.common.utils.Helper.normalizeIdentifierName;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+public class HelperTest {
+
+    @Test
+    public void testEscapeIdentifierName() {
+        String name = "Tab1";
+        assertSame(name, escapeIdentifierName(name));
+        assertEquals("Tab1", escapeIdentifierName("`Tab1`"));
+        assertEquals("db.tab1", escapeIdentifierName("\"db\".'tab1'"));
+        assertEquals("", escapeIdentifierName("``"));
+    }
+
+    @Test
+    public void testNormalizeIdentifierName() {
+        String name = "tab_1";
+        assertSame(name, normalizeIdentifierName(name));
+        assertEquals("tab1", normalizeIdentifierName("`Tab1`"));
+        assertEquals("db.tab1", normalizeIdentifierName("\"DB\".'TAB1'"));
+        assertEquals("stra\u00dfe_\u00fc", normalizeIdentifierName("`STRA\u00dfE_\u00dc`"));
+        assertEquals("", normalizeIdentifierName(""));
+    }
+
+    @Test
+    public void testFingerprint() {
+        long first = Fingerprint.of("SELECT col1 ");
+        long second = Fingerprint.of("FROM tab1");
+        long whole = Fingerprint.of("SELECT col1 FROM tab1");
+        assertEquals(whole, Fingerprint.append(first, "FROM tab1"));
+        assertEquals(whole, Fingerprint.concat(first, second, "FROM tab1".length()));
+        assertEquals(second, Fingerprint.suffix(whole, first, "FROM tab1".length()));
+        assertNotEquals(whole, Fingerprint.of("SELECT col1 FROM tab2"));
+
+        // a Thue-Morse string and its complement collide for a polynomial hash modulo 2^64, whatever the odd base
+        StringBuilder thueMorse = new StringBuilder("a");
+        while (thueMorse.length() < 4096) {
+            for (int i = 0, n = thueMorse.length(); i < n; i++) {
+                thueMorse.append(thueMorse.charAt(i) == 'a' ? 'b' : 'a');
+            }
+        }
+        String complement = thueMorse.toString().replace('a', 'c').replace('b', 'a').replace('c', 'b');
+        assertNotEquals(Fingerprint.of(thueMorse), Fingerprint.of(complement));
+    }
+}
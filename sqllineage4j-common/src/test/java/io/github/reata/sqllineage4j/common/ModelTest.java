@@ -1,6 +1,8 @@
 package io.github.reata.sqllineage4j.common;
 
+import io.github.reata.sqllineage4j.common.model.Column;
 import io.github.reata.sqllineage4j.common.model.Schema;
+import io.github.reata.sqllineage4j.common.model.SubQuery;
 import io.github.reata.sqllineage4j.common.model.Table;
 import org.junit.Test;
 
@@ -8,7 +10,12 @@ import java.util.HashSet;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class ModelTest {
 
@@ -26,4 +33,68 @@ public class ModelTest {
         assertEquals(new Table("a"), new Table("a"));
         assertEquals(1, new HashSet<>(List.of(new Table("a"), new Table("a"))).size());
     }
+
+    @Test
+    public void testTableFromParts() {
+        Table table = new Table("db.tab1", "t");
+        Table copy = new Table(table.getSchema(), table.getRawName(), table.getAlias());
+        assertEquals(table, copy);
+        assertEquals(table.toString(), copy.toString());
+        assertEquals("t", copy.getAlias());
+        assertEquals(new Table("tab1"), new Table(new Schema(), "tab1", null));
+    }
+
+    @Test
+    public void testColumnParent() {
+        Column column = new Column("Col1");
+        column.setParent(new Table("tab1"));
+        column.setParent(new Table("tab2"));
+        // ambiguous until finalized, and stays so afterwards
+        assertNull(column.getParent());
+        assertEquals(new Column("col1"), column);
+        assertThrows(IllegalStateException.class, () -> column.setParent(new Table("tab3")));
+        // the same parent again changes nothing
+        column.setParent(new Table("tab1"));
+        assertEquals("col1", column.toString());
+
+        Column qualified = new Column("col1");
+        qualified.setParent(new Table("db.tab1"));
+        assertEquals(new Table("db.tab1"), qualified.getParent());
+        Column copy = new Column("COL1");
+        copy.setParent(new Table("DB.TAB1"));
+        assertEquals(qualified.hashCode(), copy.hashCode());
+        assertEquals(1, new HashSet<>(List.of(qualified, copy)).size());
+    }
+
+    @Test
+    public void testNamesShared() {
+        Table table = new Table("DB.Orders");
+        Table other = new Table(new String("db.orders"));
+        assertSame(table.toString(), other.toString());
+        assertSame(table.getSchema().toString(), other.getSchema().toString());
+        Column column = new Column("customer_id");
+        column.setParent(table);
+        Column otherColumn = new Column(new String("customer_id"));
+        otherColumn.setParent(other);
+        assertSame(column.getRawName(), otherColumn.getRawName());
+        // qualified names are pooled once the columns are finalized
+        assertEquals(column, otherColumn);
+        assertSame(column.toString(), otherColumn.toString());
+    }
+
+    @Test
+    public void testSubQuery() {
+        SubQuery subQuery = new SubQuery("SELECT col1 FROM tab1", "sq");
+        assertEquals(new SubQuery("SELECT col1 FROM tab1", "other"), subQuery);
+        assertNotEquals(new SubQuery("SELECT col1 FROM tab2", "sq"), subQuery);
+        SubQuery copy = subQuery.withAlias("Sq2");
+        assertEquals(subQuery, copy);
+        assertEquals("sq2", copy.toString());
+        assertEquals("SELECT col1 FROM tab1", copy.getQuery());
+        SubQuery unnamed = new SubQuery(subQuery.getFingerprint(), subQuery.getLength(), null, null);
+        assertEquals(subQuery, unnamed);
+        assertNull(unnamed.getQuery());
+        assertTrue(unnamed.getAlias().startsWith("subquery_"));
+
+    }
 }
@@ -1,5 +1,6 @@
 package io.github.reata.sqllineage4j.core;
 
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
 import io.github.reata.sqllineage4j.common.constant.NodeTag;
 import io.github.reata.sqllineage4j.common.entity.ColumnQualifierTuple;
 import io.github.reata.sqllineage4j.common.model.Column;
@@ -8,6 +9,7 @@ import io.github.reata.sqllineage4j.common.model.SubQuery;
 import io.github.reata.sqllineage4j.common.model.Table;
 import io.github.reata.sqllineage4j.core.holder.StatementLineageHolder;
 import io.github.reata.sqllineage4j.core.holder.SubQueryLineageHolder;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
 import io.github.reata.sqllineage4j.parser.SqlBaseBaseListener;
 import io.github.reata.sqllineage4j.parser.SqlBaseParser;
 import org.antlr.v4.runtime.CharStream;
@@ -22,17 +24,53 @@ import java.util.stream.Collectors;
 
 public class LineageAnalyzer {
 
+    private final LineageGraphType graphType;
+    private final LineageLevel level;
+
+    public LineageAnalyzer() {
+        this(LineageGraphType.GREMLIN);
+    }
+
+    public LineageAnalyzer(LineageGraphType graphType) {
+        this(graphType, LineageLevel.COLUMN);
+    }
+
+    public LineageAnalyzer(LineageGraphType graphType, LineageLevel level) {
+        this.graphType = graphType;
+        this.level = level;
+    }
+
     public StatementLineageHolder analyze(ParseTree stmt) {
         ParseTreeWalker walker = new ParseTreeWalker();
-        LineageListener listener = new LineageListener();
+        LineageListener listener = new LineageListener(graphType, level);
         walker.walk(listener, stmt);
         return listener.getStatementLineageHolder();
     }
 
     public static class LineageListener extends SqlBaseBaseListener {
 
-        private final StatementLineageHolder statementLineageHolder = new StatementLineageHolder();
-        private final Map<Integer, SubQueryLineageHolder> subQueryLineageHolders = new HashMap<>();
+        private final LineageGraphType graphType;
+        private final LineageLevel level;
+        private final StatementLineageHolder statementLineageHolder;
+        // holders of all query specifications in the statement, in the order they are entered
+        private final List<SubQueryLineageHolder> subQueryLineageHolders = new ArrayList<>();
+        // holders of the query specifications enclosing the current node, innermost first
+        private final Deque<SubQueryLineageHolder> holderStack = new ArrayDeque<>();
+        private QueryFingerprinter fingerprinter;
+
+        public LineageListener() {
+            this(LineageGraphType.GREMLIN);
+        }
+
+        public LineageListener(LineageGraphType graphType) {
+            this(graphType, LineageLevel.COLUMN);
+        }
+
+        public LineageListener(LineageGraphType graphType, LineageLevel level) {
+            this.graphType = graphType;
+            this.level = level;
+            this.statementLineageHolder = new StatementLineageHolder(graphType, level);
+        }
 
         public StatementLineageHolder getStatementLineageHolder() {
             return statementLineageHolder;
@@ -43,19 +81,27 @@ public class LineageAnalyzer {
             return stream.getText(new Interval(parserRuleContext.start.getStartIndex(), parserRuleContext.stop.getStopIndex()));
         }
 
-        private SubQueryLineageHolder getHolder(ParserRuleContext ctx) {
-            while (ctx.getParent() != null) {
-                ctx = ctx.getParent();
-                if (ctx instanceof SqlBaseParser.RegularQuerySpecificationContext) {
-                    return subQueryLineageHolders.get(ctx.hashCode());
+        private SubQuery toSubQuery(ParserRuleContext query, String alias) {
+            if (fingerprinter == null) {
+                ParserRuleContext root = query;
+                while (root.getParent() != null) {
+                    root = root.getParent();
                 }
+                fingerprinter = new QueryFingerprinter(root);
             }
-            return null;
+            return fingerprinter.subQuery(query, alias);
+        }
+
+        /**
+         * Holder of the innermost query specification the walk is in, null outside of any query.
+         */
+        private SubQueryLineageHolder getHolder() {
+            return holderStack.peek();
         }
 
         @Override
         public void exitSingleStatement(SqlBaseParser.SingleStatementContext ctx) {
-            for (SubQueryLineageHolder holder : subQueryLineageHolders.values()) {
+            for (SubQueryLineageHolder holder : subQueryLineageHolders) {
                 statementLineageHolder.union(holder);
             }
         }
@@ -114,8 +160,8 @@ public class LineageAnalyzer {
         public void enterCtes(SqlBaseParser.CtesContext ctx) {
             for (SqlBaseParser.NamedQueryContext namedQueryContext : ctx.namedQuery()) {
                 if (namedQueryContext.query() != null) {
-                    statementLineageHolder.addCTE(new SubQuery(
-                            namedQueryContext.query().getText(),
+                    statementLineageHolder.addCTE(toSubQuery(
+                            namedQueryContext.query(),
                             namedQueryContext.errorCapturingIdentifier().getText()
                     ));
                 }
@@ -124,8 +170,9 @@ public class LineageAnalyzer {
 
         @Override
         public void enterRegularQuerySpecification(SqlBaseParser.RegularQuerySpecificationContext ctx) {
-            SubQueryLineageHolder holder = new SubQueryLineageHolder();
-            subQueryLineageHolders.put(ctx.hashCode(), holder);
+            SubQueryLineageHolder holder = new SubQueryLineageHolder(graphType, level);
+            subQueryLineageHolders.add(holder);
+            holderStack.push(holder);
             ParserRuleContext parentCtx = ctx;
             boolean isSubQuery = false;
             while (parentCtx.getParent() != null) {
@@ -133,13 +180,13 @@ public class LineageAnalyzer {
                 if (parentCtx instanceof SqlBaseParser.AliasedQueryContext) {
                     isSubQuery = true;
                     SqlBaseParser.AliasedQueryContext aliasedQueryContext = (SqlBaseParser.AliasedQueryContext) parentCtx;
-                    SubQuery subQuery = new SubQuery(aliasedQueryContext.query().getText(), aliasedQueryContext.tableAlias().getText());
+                    SubQuery subQuery = toSubQuery(aliasedQueryContext.query(), aliasedQueryContext.tableAlias().getText());
                     holder.addWrite(subQuery);
                     break;
                 } else if (parentCtx instanceof SqlBaseParser.NamedQueryContext) {
                     isSubQuery = true;
                     SqlBaseParser.NamedQueryContext namedQueryContext = (SqlBaseParser.NamedQueryContext) parentCtx;
-                    SubQuery subQuery = new SubQuery(namedQueryContext.query().getText(), namedQueryContext.errorCapturingIdentifier().getText());
+                    SubQuery subQuery = toSubQuery(namedQueryContext.query(), namedQueryContext.errorCapturingIdentifier().getText());
                     holder.addWrite(subQuery);
                     break;
                 }
@@ -153,7 +200,10 @@ public class LineageAnalyzer {
 
         @Override
         public void exitRegularQuerySpecification(SqlBaseParser.RegularQuerySpecificationContext ctx) {
-            SubQueryLineageHolder holder = subQueryLineageHolders.get(ctx.hashCode());
+            SubQueryLineageHolder holder = holderStack.pop();
+            if (level == LineageLevel.TABLE) {
+                return;
+            }
             QuerySet tgtTbl = null;
             if (holder.getWrite().size() == 1) {
                 tgtTbl = List.copyOf(holder.getWrite()).get(0);
@@ -171,6 +221,9 @@ public class LineageAnalyzer {
 
         @Override
         public void enterSelectClause(SqlBaseParser.SelectClauseContext ctx) {
+            if (level == LineageLevel.TABLE) {
+                return;
+            }
             for (SqlBaseParser.NamedExpressionContext namedExpressionContext : ctx.namedExpressionSeq().namedExpression()) {
                 String alias = getIdentifierName(namedExpressionContext.errorCapturingIdentifier());
                 SqlBaseParser.BooleanExpressionContext booleanExpressionContext = namedExpressionContext.expression().booleanExpression();
@@ -212,13 +265,13 @@ public class LineageAnalyzer {
                 handleRelationPrimary(aliasedRelationContext.relation().relationPrimary());
             } else if (relationPrimaryContext instanceof SqlBaseParser.AliasedQueryContext) {
                 SqlBaseParser.AliasedQueryContext aliasedQueryContext = (SqlBaseParser.AliasedQueryContext) relationPrimaryContext;
-                SubQueryLineageHolder holder = getHolder(relationPrimaryContext);
-                Objects.requireNonNull(holder).addRead(new SubQuery(aliasedQueryContext.query().getText(), aliasedQueryContext.tableAlias().getText()));
+                SubQueryLineageHolder holder = getHolder();
+                Objects.requireNonNull(holder).addRead(toSubQuery(aliasedQueryContext.query(), aliasedQueryContext.tableAlias().getText()));
             }
         }
 
         private void handleMultipartIdentifier(SqlBaseParser.MultipartIdentifierContext multipartIdentifierContext, String type, String alias) {
-            SubQueryLineageHolder holder = getHolder(multipartIdentifierContext);
+            SubQueryLineageHolder holder = getHolder();
             List<String> unquotedParts = new ArrayList<>();
             for (SqlBaseParser.ErrorCapturingIdentifierContext errorCapturingIdentifierContext : multipartIdentifierContext.errorCapturingIdentifier()) {
                 String identifier = getIdentifierName(errorCapturingIdentifierContext);
@@ -230,11 +283,11 @@ public class LineageAnalyzer {
             Table table = alias == null ? new Table(rawName) : new Table(rawName, alias);
             switch (type) {
                 case NodeTag.READ:
-                    Map<String, SubQuery> cteMap = statementLineageHolder.getCTE().stream().collect(Collectors.toMap(SubQuery::getAlias, Function.identity()));
-                    if (cteMap.containsKey(rawName)) {
-                        SubQuery cte = cteMap.get(rawName);
+                    Map<String, SubQuery> cteMap = statementLineageHolder.getCTE().stream().collect(Collectors.toMap(cte -> cte.getAlias().toLowerCase(), Function.identity()));
+                    if (cteMap.containsKey(rawName.toLowerCase())) {
+                        SubQuery cte = cteMap.get(rawName.toLowerCase());
                         if (alias != null) {
-                            Objects.requireNonNull(holder).addRead(new SubQuery(cte.getQuery(), alias));
+                            Objects.requireNonNull(holder).addRead(cte.withAlias(alias));
                         }
                         Objects.requireNonNull(holder).addRead(cte);
                     } else {
@@ -264,7 +317,7 @@ public class LineageAnalyzer {
         }
 
         private void handleValueExpression(SqlBaseParser.ValueExpressionContext valueExpressionContext, String alias) {
-            SubQueryLineageHolder holder = getHolder(valueExpressionContext);
+            SubQueryLineageHolder holder = getHolder();
             List<Column> selectColumns = Objects.requireNonNull(holder).getSelectColumns();
             if (valueExpressionContext instanceof SqlBaseParser.ValueExpressionDefaultContext) {
                 SqlBaseParser.ValueExpressionDefaultContext valueExpressionDefaultContext = (SqlBaseParser.ValueExpressionDefaultContext) valueExpressionContext;
@@ -279,7 +332,7 @@ public class LineageAnalyzer {
                     SqlBaseParser.DereferenceContext dereferenceContext = (SqlBaseParser.DereferenceContext) primaryExpressionContext;
                     String columnName = dereferenceContext.identifier().strictIdentifier().getText();
                     Column column = new Column(alias.equals("") ? columnName : alias);
-                    String qualifierName = dereferenceContext.primaryExpression().getText();
+                    String qualifierName = dereferenceContext.primaryExpression().getText().toLowerCase();
                     column.setSourceColumns(ColumnQualifierTuple.create(columnName, qualifierName));
                     selectColumns.add(column);
                 } else if (primaryExpressionContext instanceof SqlBaseParser.StarContext) {
@@ -351,7 +404,9 @@ public class LineageAnalyzer {
         }
 
         private Map<String, QuerySet> getAliasMappingFromTableGroup(SubQueryLineageHolder holder) {
-            Map<String, QuerySet> alias = holder.getQuerySetAlias();
+            // identifiers keep their original case, so aliases and qualifiers are both matched in lower case
+            Map<String, QuerySet> alias = new HashMap<>();
+            holder.getQuerySetAlias().forEach((name, dataset) -> alias.put(name.toLowerCase(), dataset));
             for (QuerySet dataset : holder.getRead()) {
                 alias.put(dataset.toString(), dataset);
                 // TODO: rawName -> dataset
@@ -1,24 +1,55 @@
 package io.github.reata.sqllineage4j.core;
 
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
 import io.github.reata.sqllineage4j.common.model.Column;
 import io.github.reata.sqllineage4j.common.model.Table;
+import io.github.reata.sqllineage4j.core.cache.StatementCache;
 import io.github.reata.sqllineage4j.core.holder.SQLLineageHolder;
 import io.github.reata.sqllineage4j.core.holder.StatementLineageHolder;
+import io.github.reata.sqllineage4j.core.metrics.LineageMetrics;
+import io.github.reata.sqllineage4j.core.metrics.StatementMetrics;
+import io.github.reata.sqllineage4j.graph.LineageGraph;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
 import io.github.reata.sqllineage4j.parser.LineageParser;
 import io.github.reata.sqllineage4j.parser.StatementSplitter;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
 import org.javatuples.Pair;
 
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 
 public class LineageRunner {
 
     public static final class Builder {
-        private final String sql;
+        private final Iterable<? extends CharSequence> scripts;
+        private final Reader reader;
         private boolean verbose = false;
+        private LineageGraphType graphType = LineageGraphType.GREMLIN;
+        private LineageLevel level = LineageLevel.COLUMN;
+        private int parallelism = 1;
+        private Executor executor = null;
+        private LineageParser parser = LineageParser.getDefault();
+        private LineageMetrics metrics = null;
+        private StatementCache cache = null;
 
-        private Builder(final String sql) {
-            this.sql = sql;
+        private Builder(final Iterable<? extends CharSequence> scripts, final Reader reader) {
+            this.scripts = scripts;
+            this.reader = reader;
         }
 
         public Builder verbose() {
@@ -26,39 +57,304 @@ public class LineageRunner {
             return this;
         }
 
+        public Builder graphType(final LineageGraphType graphType) {
+            this.graphType = graphType;
+            return this;
+        }
+
+        /**
+         * With {@link LineageLevel#TABLE}, select items are not analyzed at all, and column lineage is unavailable.
+         */
+        public Builder level(final LineageLevel level) {
+            this.level = level;
+            return this;
+        }
+
+        /**
+         * Parse and analyze statements concurrently on a pool of the given size, created and shut down by the runner.
+         * Statement lineage is still combined in original statement order.
+         */
+        public Builder parallelism(final int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        public Builder parallel() {
+            return parallelism(Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * Parse and analyze statements concurrently on a caller-owned executor, which is left running afterwards.
+         */
+        public Builder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Share a configured parser, e.g. one warmed up by a long-running service, instead of the default one.
+         */
+        public Builder parser(final LineageParser parser) {
+            this.parser = parser;
+            return this;
+        }
+
+        /**
+         * Report timings and sizes of each phase and statement to the given listener, see
+         * {@link io.github.reata.sqllineage4j.core.metrics.LineageProfile} for one that collects them all.
+         */
+        public Builder metrics(final LineageMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Look statements up in the given cache before parsing them, and add those not found.
+         */
+        public Builder cache(final StatementCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
         public LineageRunner build() {
-            if (sql == null) {
+            if (scripts == null && reader == null) {
                 throw new IllegalArgumentException("sql string must be specified");
             }
+            if (graphType == null) {
+                throw new IllegalArgumentException("graph type must be specified");
+            }
+            if (level == null) {
+                throw new IllegalArgumentException("lineage level must be specified");
+            }
+            if (parser == null) {
+                throw new IllegalArgumentException("parser must be specified");
+            }
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive");
+            }
             return new LineageRunner(this);
         }
     }
 
 
-    private final List<StatementLineageHolder> statementLineageHolders;
-    private final SQLLineageHolder sqlLineageHolder;
-    private final List<String> statements;
-
+    private final Iterable<? extends CharSequence> scripts;
+    private final Reader reader;
     private final boolean verbose;
+    private final LineageGraphType graphType;
+    private final LineageLevel level;
+    private final int parallelism;
+    private final Executor executor;
+    private final LineageParser parser;
+    private final LineageMetrics metrics;
+    private final StatementCache cache;
+
+    // computed on first use, see run(). Statements themselves are not kept, only their number, and in verbose mode
+    // the beginning of each for display
+    private int statementCount;
+    private List<String> statementHeads;
+    private List<StatementLineageHolder> statementLineageHolders;
+    private SQLLineageHolder sqlLineageHolder;
+    // a reader cannot be read again, so a failed run fails every later call the same way
+    private RuntimeException failure;
 
     private LineageRunner(final Builder builder) {
-        String sql = builder.sql;
+        this.scripts = builder.scripts;
+        this.reader = builder.reader;
         this.verbose = builder.verbose;
-        statements = new StatementSplitter(sql).split();
-        statementLineageHolders = statements.stream().map(x -> new LineageAnalyzer().analyze(LineageParser.parse(x))).collect(Collectors.toList());
-        sqlLineageHolder = SQLLineageHolder.of(statementLineageHolders.toArray(StatementLineageHolder[]::new));
+        this.graphType = builder.graphType;
+        this.level = builder.level;
+        this.parallelism = builder.parallelism;
+        this.executor = builder.executor;
+        this.parser = builder.parser;
+        this.metrics = builder.metrics;
+        this.cache = builder.cache;
+    }
+
+    private synchronized SQLLineageHolder run() {
+        if (failure != null) {
+            throw failure;
+        }
+        if (sqlLineageHolder == null) {
+            try {
+                combine();
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            }
+        }
+        return sqlLineageHolder;
+    }
+
+    private void combine() {
+        statementCount = 0;
+        statementHeads = verbose ? new ArrayList<>() : null;
+        if (executor != null) {
+            statementLineageHolders = analyzeConcurrently(executor);
+        } else if (parallelism > 1) {
+            ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+            try {
+                statementLineageHolders = analyzeConcurrently(pool);
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            List<StatementLineageHolder> holders = new ArrayList<>();
+            forEachStatement((statement, index) -> holders.add(analyze(index, statement)));
+            statementLineageHolders = holders;
+        }
+        long start = System.nanoTime();
+        // merging has to follow statement order for DROP and RENAME to take effect correctly
+        sqlLineageHolder = SQLLineageHolder.of(graphType, statementLineageHolders.toArray(StatementLineageHolder[]::new));
+        if (metrics != null) {
+            metrics.phaseCompleted(LineageMetrics.Phase.COMBINE, System.nanoTime() - start);
+            LineageGraph graph = sqlLineageHolder.getGraph();
+            metrics.graphCombined(graph.vertexCount(), graph.edgeCount());
+        }
+    }
+
+    /**
+     * Split the scripts one after another, handing out each statement as soon as it has been split off,
+     * without waiting for the rest of the script.
+     */
+    private void forEachStatement(ObjIntConsumer<String> action) {
+        long start = System.nanoTime();
+        long[] actionNanos = new long[1];
+        ObjIntConsumer<String> timedAction = (statement, index) -> {
+            long actionStart = System.nanoTime();
+            action.accept(statement, index);
+            actionNanos[0] += System.nanoTime() - actionStart;
+        };
+        if (reader != null) {
+            forEachStatement(new StatementSplitter(reader), timedAction);
+        } else {
+            for (CharSequence script : scripts) {
+                forEachStatement(new StatementSplitter(script), timedAction);
+            }
+        }
+        if (metrics != null) {
+            metrics.phaseCompleted(LineageMetrics.Phase.SPLIT, System.nanoTime() - start - actionNanos[0]);
+        }
+    }
+
+    private void forEachStatement(StatementSplitter splitter, ObjIntConsumer<String> action) {
+        for (String statement : splitter) {
+            if (statementHeads != null) {
+                String head = statement.replace("\n", "");
+                statementHeads.add(head.length() > 50 ? head.substring(0, 50) + "..." : head);
+            }
+            action.accept(statement, statementCount++);
+        }
+    }
+
+    private StatementLineageHolder analyze(int index, String statement) {
+        if (cache == null) {
+            return analyzeUncached(index, statement);
+        }
+        String key = StatementCache.key(statement, graphType, level);
+        StatementLineageHolder holder = cache.get(key);
+        if (holder == null) {
+            holder = analyzeUncached(index, statement);
+            cache.put(key, holder);
+        }
+        return holder;
+    }
+
+    private StatementLineageHolder analyzeUncached(int index, String statement) {
+        if (metrics == null) {
+            return new LineageAnalyzer(graphType, level).analyze(parser.parseStatement(statement));
+        }
+        long allocatedBefore = metrics.isAllocationTracked() ? allocatedBytes() : -1;
+        long start = System.nanoTime();
+        ParseTree tree = parser.parseStatement(statement);
+        long parsed = System.nanoTime();
+        StatementLineageHolder holder = new LineageAnalyzer(graphType, level).analyze(tree);
+        long analyzed = System.nanoTime();
+        long allocated = allocatedBefore >= 0 ? allocatedBytes() - allocatedBefore : -1;
+        // counted after the clock stopped, so that counting is not part of the timings
+        int tokens = 0;
+        int treeNodes = 0;
+        Deque<ParseTree> stack = new ArrayDeque<>();
+        stack.push(tree);
+        while (!stack.isEmpty()) {
+            ParseTree node = stack.pop();
+            treeNodes++;
+            if (node instanceof TerminalNode) {
+                if (((TerminalNode) node).getSymbol().getType() != Token.EOF) {
+                    tokens++;
+                }
+            } else {
+                for (int i = 0; i < node.getChildCount(); i++) {
+                    stack.push(node.getChild(i));
+                }
+            }
+        }
+        LineageGraph graph = holder.getGraph();
+        metrics.statementAnalyzed(new StatementMetrics(index, statement, parsed - start, analyzed - parsed,
+                tokens, treeNodes, graph.vertexCount(), graph.edgeCount(), allocated));
+        return holder;
+    }
+
+    /**
+     * Bytes allocated by the current thread so far, or -1 if the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private List<StatementLineageHolder> analyzeConcurrently(Executor executor) {
+        List<CompletableFuture<StatementLineageHolder>> futures = new ArrayList<>();
+        forEachStatement((statement, index) -> futures.add(CompletableFuture.supplyAsync(() -> analyze(index, statement), executor)));
+        List<StatementLineageHolder> holders = new ArrayList<>();
+        for (CompletableFuture<StatementLineageHolder> future : futures) {
+            try {
+                holders.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return holders;
+    }
+
+    private <T> T query(Function<SQLLineageHolder, T> query) {
+        SQLLineageHolder holder = run();
+        if (metrics == null) {
+            return query.apply(holder);
+        }
+        long start = System.nanoTime();
+        T result = query.apply(holder);
+        metrics.phaseCompleted(LineageMetrics.Phase.QUERY, System.nanoTime() - start);
+        return result;
     }
 
     public List<Table> sourceTables() {
-        return List.copyOf(sqlLineageHolder.getSourceTables());
+        return query(holder -> List.copyOf(holder.getSourceTables()));
     }
 
     public List<Table> targetTables() {
-        return List.copyOf(sqlLineageHolder.getTargetTables());
+        return query(holder -> List.copyOf(holder.getTargetTables()));
     }
 
     public List<Table> intermediateTables() {
-        return List.copyOf(sqlLineageHolder.getIntermediateTables());
+        return query(holder -> List.copyOf(holder.getIntermediateTables()));
+    }
+
+    /**
+     * Lineage of each statement, in statement order. Can be combined with those of other runners
+     * through {@link SQLLineageHolder#of(LineageGraphType, StatementLineageHolder...)}.
+     */
+    public List<StatementLineageHolder> getStatementLineageHolders() {
+        run();
+        return List.copyOf(statementLineageHolders);
     }
 
     public List<Pair<Column, Column>> getColumnLineage() {
@@ -66,30 +362,29 @@ public class LineageRunner {
     }
 
     public List<Pair<Column, Column>> getColumnLineage(boolean excludeSubquery) {
-        return sqlLineageHolder.getColumnLineage(excludeSubquery)
-                .stream().map(path -> Pair.with(path.get(0), path.get(path.size() - 1)))
-                .collect(Collectors.toList());
+        if (level == LineageLevel.TABLE) {
+            throw new IllegalStateException("column lineage is not available at table lineage level");
+        }
+        return query(holder -> List.copyOf(holder.getColumnLineagePairs(excludeSubquery)));
     }
 
     public void printTableLineage() {
         String sourceTables = sourceTables().stream().map(t -> "    " + t.toString() + "\n").collect(Collectors.joining());
         String targetTables = targetTables().stream().map(t -> "    " + t.toString() + "\n").collect(Collectors.joining());
-        String combined = "Statements(#): " + statements.size() + "\n"
+        String combined = "Statements(#): " + statementCount + "\n"
                 + "Source Tables:\n"
                 + sourceTables
                 + "Target Tables:\n"
                 + targetTables;
-        if (intermediateTables().size() > 0) {
-            String intermediateTables = intermediateTables().stream().map(t -> "    " + t.toString() + "\n").collect(Collectors.joining());
+        List<Table> intermediateTableList = intermediateTables();
+        if (intermediateTableList.size() > 0) {
+            String intermediateTables = intermediateTableList.stream().map(t -> "    " + t.toString() + "\n").collect(Collectors.joining());
             combined += "Intermediate Tables:\n" + intermediateTables;
         }
         if (verbose) {
             StringBuilder result = new StringBuilder();
             for (int i = 0; i < statementLineageHolders.size(); i++) {
-                String stmtShort = statements.get(i).replace("\n", "");
-                if (stmtShort.length() > 50) {
-                    stmtShort = stmtShort.substring(0, 50) + "...";
-                }
+                String stmtShort = statementHeads.get(i);
                 String content = statementLineageHolders.get(i).toString().replace("\n", "\n    ");
                 result.append("Statement #").append(i + 1).append(": ").append(stmtShort).append("\n    ").append(content).append("\n");
             }
@@ -99,6 +394,24 @@ public class LineageRunner {
     }
 
     public static Builder builder(final String sql) {
-        return new Builder(sql);
+        return new Builder(sql == null ? null : List.of(sql), null);
+    }
+
+    /**
+     * Lineage of several scripts, e.g. files, taken together in iteration order. Each script is split on its own,
+     * so a statement never spans two scripts, and scripts are only requested from the iterable as they are needed.
+     */
+    public static Builder builder(final Iterable<? extends CharSequence> scripts) {
+        return new Builder(scripts, null);
+    }
+
+    /**
+     * Read the script incrementally from the given reader, which is consumed on first use of the runner
+     * and left open. If reading fails, every later call on the runner fails with the same exception.
+     * <p>
+     * Each statement is let go once analyzed, so memory holds the lineage but not the script itself.
+     */
+    public static Builder builder(final Reader reader) {
+        return new Builder(null, reader);
     }
 }
@@ -0,0 +1,153 @@
+package io.github.reata.sqllineage4j.core;
+
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
+import io.github.reata.sqllineage4j.common.model.Column;
+import io.github.reata.sqllineage4j.common.model.Table;
+import io.github.reata.sqllineage4j.core.cache.StatementCache;
+import io.github.reata.sqllineage4j.core.holder.SQLLineageHolder;
+import io.github.reata.sqllineage4j.core.holder.StatementLineageHolder;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
+import io.github.reata.sqllineage4j.parser.LineageParser;
+import io.github.reata.sqllineage4j.parser.StatementSplitter;
+import org.javatuples.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lineage of statements that keep coming, e.g. from a query log. Each {@link #add} only analyzes the new statements
+ * and merges them into the lineage so far, with the same outcome as running all statements added at once
+ * through a {@link LineageRunner}.
+ * <p>
+ * Statement lineage is not kept after merging, so memory grows with the vertices of the lineage graph: tables,
+ * columns and subqueries seen, less those dropped since. Subqueries are distinct per query text, so a log of
+ * ever different subqueries still grows with the number of statements.
+ * <p>
+ * Sessions use {@link LineageGraphType#NATIVE} unless told otherwise, the lighter graph for a long-lived lineage.
+ */
+public class LineageSession {
+
+    public static final class Builder {
+        private LineageGraphType graphType = LineageGraphType.NATIVE;
+        private LineageLevel level = LineageLevel.COLUMN;
+        private LineageParser parser = LineageParser.getDefault();
+        private StatementCache cache = null;
+
+        private Builder() {
+        }
+
+        public Builder graphType(final LineageGraphType graphType) {
+            this.graphType = graphType;
+            return this;
+        }
+
+        /**
+         * With {@link LineageLevel#TABLE}, select items are not analyzed at all, and column lineage is unavailable.
+         */
+        public Builder level(final LineageLevel level) {
+            this.level = level;
+            return this;
+        }
+
+        public Builder parser(final LineageParser parser) {
+            this.parser = parser;
+            return this;
+        }
+
+        /**
+         * Look statements up in the given cache before parsing them, and add those not found.
+         */
+        public Builder cache(final StatementCache cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        public LineageSession build() {
+            if (graphType == null) {
+                throw new IllegalArgumentException("graph type must be specified");
+            }
+            if (level == null) {
+                throw new IllegalArgumentException("lineage level must be specified");
+            }
+            if (parser == null) {
+                throw new IllegalArgumentException("parser must be specified");
+            }
+            return new LineageSession(this);
+        }
+    }
+
+    private final LineageGraphType graphType;
+    private final LineageLevel level;
+    private final LineageParser parser;
+    private final StatementCache cache;
+    private final SQLLineageHolder sqlLineageHolder;
+    private long statementCount = 0;
+
+    private LineageSession(final Builder builder) {
+        this.graphType = builder.graphType;
+        this.level = builder.level;
+        this.parser = builder.parser;
+        this.cache = builder.cache;
+        this.sqlLineageHolder = SQLLineageHolder.of(graphType);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Analyze the statements in the given script and merge them into the lineage so far.
+     * Nothing is merged if any of the statements fails to analyze.
+     *
+     * @return lineage of each statement added, in statement order
+     */
+    public synchronized List<StatementLineageHolder> add(final String sql) {
+        List<StatementLineageHolder> holders = new ArrayList<>();
+        for (String statement : new StatementSplitter(sql)) {
+            holders.add(analyze(statement));
+        }
+        sqlLineageHolder.add(holders.toArray(StatementLineageHolder[]::new));
+        statementCount += holders.size();
+        return List.copyOf(holders);
+    }
+
+    private StatementLineageHolder analyze(String statement) {
+        if (cache == null) {
+            return new LineageAnalyzer(graphType, level).analyze(parser.parseStatement(statement));
+        }
+        String key = StatementCache.key(statement, graphType, level);
+        StatementLineageHolder holder = cache.get(key);
+        if (holder == null) {
+            holder = new LineageAnalyzer(graphType, level).analyze(parser.parseStatement(statement));
+            cache.put(key, holder);
+        }
+        return holder;
+    }
+
+    public synchronized long getStatementCount() {
+        return statementCount;
+    }
+
+    public synchronized List<Table> sourceTables() {
+        return List.copyOf(sqlLineageHolder.getSourceTables());
+    }
+
+    public synchronized List<Table> targetTables() {
+        return List.copyOf(sqlLineageHolder.getTargetTables());
+    }
+
+    public synchronized List<Table> intermediateTables() {
+        return List.copyOf(sqlLineageHolder.getIntermediateTables());
+    }
+
+    public List<Pair<Column, Column>> getColumnLineage() {
+        return getColumnLineage(true);
+    }
+
+    public synchronized List<Pair<Column, Column>> getColumnLineage(boolean excludeSubquery) {
+        if (level == LineageLevel.TABLE) {
+            throw new IllegalStateException("column lineage is not available at table lineage level");
+        }
+        return List.copyOf(sqlLineageHolder.getColumnLineagePairs(excludeSubquery));
+    }
+}
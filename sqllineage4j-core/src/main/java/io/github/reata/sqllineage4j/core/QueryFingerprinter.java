@@ -0,0 +1,91 @@
+package io.github.reata.sqllineage4j.core;
+
+import io.github.reata.sqllineage4j.common.model.SubQuery;
+import io.github.reata.sqllineage4j.common.utils.Fingerprint;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Builds {@link SubQuery} identities from parse tree nodes of a statement without walking their subtrees.
+ * <p>
+ * The fingerprint of a node is that of its {@link ParseTree#getText()}, i.e. its tokens without whitespace
+ * and comments. Prefix fingerprints over the tokens of the whole statement are computed once, after which
+ * the fingerprint of any node is derived from those of its first and last token in constant time. Calling getText
+ * on every subquery instead costs time quadratic in the nesting depth.
+ * <p>
+ * The text of a subquery is only cut out of the input stream when asked for, for display. Until then each subquery
+ * refers to the input stream of its statement, which holds no more than the statement text itself.
+ */
+final class QueryFingerprinter {
+    // fingerprint and length of the text of all tokens with an index below i
+    private final long[] prefix;
+    private final int[] length;
+
+    QueryFingerprinter(ParseTree root) {
+        List<Token> tokens = new ArrayList<>();
+        Deque<ParseTree> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            ParseTree node = stack.pop();
+            if (node instanceof TerminalNode) {
+                Token token = ((TerminalNode) node).getSymbol();
+                // tokens conjured by error recovery have no index, and are left out
+                if (token.getTokenIndex() >= 0 && token.getType() != Token.EOF) {
+                    tokens.add(token);
+                }
+            }
+            for (int i = node.getChildCount() - 1; i >= 0; i--) {
+                stack.push(node.getChild(i));
+            }
+        }
+        int size = tokens.isEmpty() ? 1 : tokens.get(tokens.size() - 1).getTokenIndex() + 2;
+        prefix = new long[size];
+        length = new int[size];
+        long fingerprint = 0L;
+        int len = 0;
+        int next = 0;
+        for (Token token : tokens) {
+            for (; next <= token.getTokenIndex(); next++) {
+                prefix[next] = fingerprint;
+                length[next] = len;
+            }
+            String text = token.getText();
+            fingerprint = Fingerprint.append(fingerprint, text);
+            len += text.length();
+        }
+        for (; next < size; next++) {
+            prefix[next] = fingerprint;
+            length[next] = len;
+        }
+    }
+
+    /**
+     * @param query node of the query, which must be part of the tree this fingerprinter was built from
+     */
+    SubQuery subQuery(ParserRuleContext query, String alias) {
+        Token start = query.getStart();
+        Token stop = query.getStop();
+        if (stop == null || start.getTokenIndex() < 0 || stop.getTokenIndex() < start.getTokenIndex()
+                || stop.getTokenIndex() + 1 >= prefix.length) {
+            // incomplete after a syntax error
+            String text = query.getText();
+            return new SubQuery(Fingerprint.of(text), text.length(), () -> text, alias);
+        }
+        int from = start.getTokenIndex();
+        int to = stop.getTokenIndex() + 1;
+        int textLength = length[to] - length[from];
+        long fingerprint = Fingerprint.suffix(prefix[to], prefix[from], textLength);
+        CharStream stream = start.getInputStream();
+        Interval interval = new Interval(start.getStartIndex(), stop.getStopIndex());
+        return new SubQuery(fingerprint, textLength, () -> stream.getText(interval), alias);
+    }
+}
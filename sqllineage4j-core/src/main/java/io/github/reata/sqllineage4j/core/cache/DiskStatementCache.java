@@ -0,0 +1,146 @@
+package io.github.reata.sqllineage4j.core.cache;
+
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
+import io.github.reata.sqllineage4j.core.holder.StatementLineageHolder;
+import io.github.reata.sqllineage4j.graph.LineageGraphReader;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
+import io.github.reata.sqllineage4j.graph.LineageGraphWriter;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Properties;
+
+/**
+ * Keeps statement lineage in a local directory, one file per statement, so that it survives from one run to the next.
+ * Each file holds the graph of a statement as written by {@link LineageGraphWriter}.
+ * <p>
+ * Files are kept in a subdirectory per library version, as lineage of the same statement can differ between versions.
+ * A snapshot version is no version at all, so for snapshots the subdirectory is per build, named after the build time.
+ * Directories of other versions are never read, and can be deleted. When the version is unknown, e.g. when run from
+ * an IDE without the maven build, nothing is kept at all: every lookup misses and entries are not written. Entries are written to a temporary file first
+ * and then moved in place, so that concurrent runs sharing a directory never see half-written entries.
+ * Unreadable entries, e.g. truncated by a full disk or corrupted, count as missing and are deleted, to be written
+ * again by the next {@link #put}.
+ */
+public class DiskStatementCache implements StatementCache {
+    private static final int MAGIC = 0x534c3443;
+    private static final int FORMAT_VERSION = 4;
+    private static final String VERSION = readVersion();
+
+    private final Path directory;
+
+    public DiskStatementCache(Path directory) {
+        this.directory = VERSION == null ? null : directory.resolve(VERSION);
+        if (this.directory != null) {
+            try {
+                Files.createDirectories(this.directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Version of this library, with the build time for snapshots, as part of the cache location,
+     * or null if unknown, in which case nothing is cached.
+     */
+    public static String getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public StatementLineageHolder get(String key) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = path(key);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            DataInputStream header = new DataInputStream(in);
+            if (header.readInt() != MAGIC || header.readInt() != FORMAT_VERSION) {
+                throw new IOException("not a statement cache entry");
+            }
+            LineageGraphType graphType = LineageGraphType.valueOf(header.readUTF());
+            LineageLevel level = LineageLevel.valueOf(header.readUTF());
+            StatementLineageHolder holder = new StatementLineageHolder(graphType, level);
+            new LineageGraphReader(in).readInto(holder.getGraph());
+            return holder;
+        } catch (IOException | RuntimeException e) {
+            // no entry is better than one that fails every run
+            delete(file);
+            return null;
+        }
+    }
+
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // left for the next put to replace
+        }
+    }
+
+    @Override
+    public void put(String key, StatementLineageHolder holder) {
+        if (directory == null) {
+            return;
+        }
+        Path file = path(key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), key, ".tmp");
+            try {
+                OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp));
+                try (LineageGraphWriter writer = writeHeader(out, holder)) {
+                    writer.write(holder.getGraph());
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static LineageGraphWriter writeHeader(OutputStream out, StatementLineageHolder holder) throws IOException {
+        try {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeInt(FORMAT_VERSION);
+            header.writeUTF(holder.getGraphType().name());
+            header.writeUTF(holder.getLevel().name());
+            return new LineageGraphWriter(out);
+        } catch (IOException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    private Path path(String key) {
+        // spread entries over subdirectories, a single directory with millions of files is slow on most file systems
+        return directory.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    private static String readVersion() {
+        Properties properties = new Properties();
+        try (InputStream in = DiskStatementCache.class.getResourceAsStream("/io/github/reata/sqllineage4j/core/version.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String version = properties.getProperty("version");
+        String build = properties.getProperty("build");
+        // unfiltered, e.g. when run from an IDE without the maven build
+        if (version == null || version.startsWith("${")) {
+            return null;
+        } else if (!version.endsWith("-SNAPSHOT")) {
+            return version;
+        }
+        return build == null || build.startsWith("${") ? null : version + "-" + build;
+    }
+}
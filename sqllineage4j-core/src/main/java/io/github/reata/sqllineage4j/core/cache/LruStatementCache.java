@@ -0,0 +1,88 @@
+package io.github.reata.sqllineage4j.core.cache;
+
+import io.github.reata.sqllineage4j.core.holder.StatementLineageHolder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps up to a fixed number of statements, evicting the least recently used one first, and counts hits and misses.
+ */
+public class LruStatementCache implements StatementCache {
+    private final int maxSize;
+    private final Map<String, StatementLineageHolder> holders;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    public LruStatementCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("cache size must be positive");
+        }
+        this.maxSize = maxSize;
+        this.holders = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StatementLineageHolder> eldest) {
+                if (size() > LruStatementCache.this.maxSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized StatementLineageHolder get(String key) {
+        StatementLineageHolder holder = holders.get(key);
+        if (holder == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return holder;
+    }
+
+    @Override
+    public synchronized void put(String key, StatementLineageHolder holder) {
+        holders.put(key, holder);
+    }
+
+    public synchronized int size() {
+        return holders.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Share of lookups answered from the cache, 0 if there were none.
+     */
+    public synchronized double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    public synchronized void clear() {
+        holders.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "LruStatementCache(size=" + holders.size() + "/" + maxSize + ", hits=" + hitCount + ", misses=" + missCount
+                + ", evictions=" + evictionCount + ")";
+    }
+}
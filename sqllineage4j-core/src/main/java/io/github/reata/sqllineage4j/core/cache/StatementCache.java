@@ -0,0 +1,46 @@
+package io.github.reata.sqllineage4j.core.cache;
+
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
+import io.github.reata.sqllineage4j.core.holder.StatementLineageHolder;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Lineage of statements analyzed before, looked up by {@link #key}, so that a statement seen again is neither parsed
+ * nor analyzed. Cached holders are shared between everyone reading them and must not be modified.
+ * <p>
+ * Implementations must be safe for concurrent use.
+ */
+public interface StatementCache {
+
+    /**
+     * @return the cached lineage, or null if there is none
+     */
+    StatementLineageHolder get(String key);
+
+    void put(String key, StatementLineageHolder holder);
+
+    /**
+     * SHA-256 of the statement without leading and trailing whitespace, together with the settings the lineage
+     * depends on. Anything else, comments and case included, is part of the statement and ends up in its lineage.
+     */
+    static String key(String statement, LineageGraphType graphType, LineageLevel level) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        digest.update((graphType.name() + "\0" + level.name() + "\0").getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest(statement.trim().getBytes(StandardCharsets.UTF_8));
+        StringBuilder key = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.toString();
+    }
+}
@@ -5,133 +5,292 @@ import io.github.reata.sqllineage4j.common.constant.NodeTag;
 import io.github.reata.sqllineage4j.common.entity.EdgeTuple;
 import io.github.reata.sqllineage4j.common.model.Column;
 import io.github.reata.sqllineage4j.common.model.Table;
-import io.github.reata.sqllineage4j.graph.GremlinLineageGraph;
 import io.github.reata.sqllineage4j.graph.LineageGraph;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
 import org.javatuples.Pair;
 
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
+/**
+ * Combined lineage of all statements. Results are computed on first request and memoized,
+ * table and column subgraphs are each extracted at most once until more statements are {@link #add added}.
+ */
 public class SQLLineageHolder {
     private final LineageGraph lineageGraph;
 
+    private LineageGraph tableLineageGraph;
+    private LineageGraph columnLineageGraph;
+    private Set<Table> sourceTables;
+    private Set<Table> targetTables;
+    private Set<Table> intermediateTables;
+    private final Map<String, Set<Table>> tagTables = new HashMap<>();
+    private final Map<Boolean, Set<List<Column>>> columnLineage = new HashMap<>();
+    private final Map<Boolean, Set<Pair<Column, Column>>> columnLineagePairs = new HashMap<>();
+
     public SQLLineageHolder(LineageGraph lineageGraph) {
         this.lineageGraph = lineageGraph;
     }
 
-    public Set<Table> getSourceTables() {
-        LineageGraph tableLineageGraph = getTableLineageGraph();
-        Set<Table> sourceTables = tableLineageGraph.retrieveSourceOnlyVertices()
-                .stream().map(Table.class::cast).collect(Collectors.toSet());
-        Set<Table> sourceOnlyTables = retrieveTagTables(NodeTag.SOURCE_ONLY);
-        Set<Table> selfLoopTables = retrieveTagTables(NodeTag.SELFLOOP);
-        sourceTables.addAll(sourceOnlyTables);
-        sourceTables.addAll(selfLoopTables);
+    public LineageGraph getGraph() {
+        return lineageGraph;
+    }
+
+    public synchronized Set<Table> getSourceTables() {
+        if (sourceTables == null) {
+            Set<Table> tables = getTableLineageGraph().retrieveSourceOnlyVertices()
+                    .stream().map(Table.class::cast).collect(Collectors.toSet());
+            tables.addAll(retrieveTagTables(NodeTag.SOURCE_ONLY));
+            tables.addAll(retrieveTagTables(NodeTag.SELFLOOP));
+            sourceTables = Collections.unmodifiableSet(tables);
+        }
         return sourceTables;
     }
 
-    public Set<Table> getTargetTables() {
-        LineageGraph tableLineageGraph = getTableLineageGraph();
-        Set<Table> targetTables = tableLineageGraph.retrieveTargetOnlyVertices()
-                .stream().map(Table.class::cast).collect(Collectors.toSet());
-        Set<Table> targetOnlyTables = retrieveTagTables(NodeTag.TARGET_ONLY);
-        Set<Table> selfLoopTables = retrieveTagTables(NodeTag.SELFLOOP);
-        targetTables.addAll(targetOnlyTables);
-        targetTables.addAll(selfLoopTables);
+    public synchronized Set<Table> getTargetTables() {
+        if (targetTables == null) {
+            Set<Table> tables = getTableLineageGraph().retrieveTargetOnlyVertices()
+                    .stream().map(Table.class::cast).collect(Collectors.toSet());
+            tables.addAll(retrieveTagTables(NodeTag.TARGET_ONLY));
+            tables.addAll(retrieveTagTables(NodeTag.SELFLOOP));
+            targetTables = Collections.unmodifiableSet(tables);
+        }
         return targetTables;
     }
 
-    public Set<Table> getIntermediateTables() {
-        LineageGraph tableLineageGraph = getTableLineageGraph();
-        Set<Table> intermediateTables = tableLineageGraph.retrieveConnectedVertices()
-                .stream().map(Table.class::cast).collect(Collectors.toSet());
-        intermediateTables.removeAll(retrieveTagTables(NodeTag.SELFLOOP));
+    public synchronized Set<Table> getIntermediateTables() {
+        if (intermediateTables == null) {
+            Set<Table> tables = getTableLineageGraph().retrieveConnectedVertices()
+                    .stream().map(Table.class::cast).collect(Collectors.toSet());
+            tables.removeAll(retrieveTagTables(NodeTag.SELFLOOP));
+            intermediateTables = Collections.unmodifiableSet(tables);
+        }
         return intermediateTables;
     }
 
-    public Set<List<Column>> getColumnLineage(boolean excludeSubquery) {
-        LineageGraph columnLineageGraph = getColumnLineageGraph();
-        Set<Column> targetColumns = columnLineageGraph.retrieveTargetOnlyVertices()
+    public synchronized Set<List<Column>> getColumnLineage(boolean excludeSubquery) {
+        return columnLineage.computeIfAbsent(excludeSubquery, k -> {
+            LineageGraph columnLineageGraph = getColumnLineageGraph();
+            return columnLineageGraph.listPaths(getSourceColumns(columnLineageGraph), getTargetColumns(columnLineageGraph, excludeSubquery))
+                    .stream().map(path -> path.stream().map(Column.class::cast).collect(Collectors.toUnmodifiableList()))
+                    .collect(Collectors.toUnmodifiableSet());
+        });
+    }
+
+    /**
+     * Same as {@link #getColumnLineage(boolean)}, but only keeps the first and last column of each path,
+     * and never materializes the paths in between.
+     */
+    public synchronized Set<Pair<Column, Column>> getColumnLineagePairs(boolean excludeSubquery) {
+        return columnLineagePairs.computeIfAbsent(excludeSubquery, k -> {
+            LineageGraph columnLineageGraph = getColumnLineageGraph();
+            Set<Pair<Column, Column>> columns = new HashSet<>();
+            columnLineageGraph.listReachableTargets(getSourceColumns(columnLineageGraph), getTargetColumns(columnLineageGraph, excludeSubquery))
+                    .forEach((source, targets) -> targets.forEach(target -> columns.add(Pair.with((Column) source, (Column) target))));
+            return Collections.unmodifiableSet(columns);
+        });
+    }
+
+    private Set<Column> getSourceColumns(LineageGraph columnLineageGraph) {
+        return columnLineageGraph.retrieveSourceOnlyVertices()
                 .stream().map(Column.class::cast).collect(Collectors.toSet());
-        Set<Column> sourceColumns = columnLineageGraph.retrieveSourceOnlyVertices()
+    }
+
+    private Set<Column> getTargetColumns(LineageGraph columnLineageGraph, boolean excludeSubquery) {
+        Set<Column> targetColumns = columnLineageGraph.retrieveTargetOnlyVertices()
                 .stream().map(Column.class::cast).collect(Collectors.toSet());
         if (excludeSubquery) {
             targetColumns = targetColumns.stream().filter(c -> c.getParent() instanceof Table).collect(Collectors.toSet());
         }
-
-        Set<List<Column>> columns = new HashSet<>();
-        for (Column sourceColumn : sourceColumns) {
-            for (Column targetColumn : targetColumns) {
-                columnLineageGraph.listPath(sourceColumn, targetColumn).forEach(
-                        path -> columns.add(path.stream().map(c -> (Column) c).collect(Collectors.toList()))
-                );
-            }
-        }
-        return columns;
+        return targetColumns;
     }
 
     private LineageGraph getTableLineageGraph() {
-        return lineageGraph.getSubGraph(Table.class.getSimpleName());
+        if (tableLineageGraph == null) {
+            tableLineageGraph = lineageGraph.getSubGraph(Table.class.getSimpleName());
+        }
+        return tableLineageGraph;
     }
 
     private LineageGraph getColumnLineageGraph() {
-        return lineageGraph.getSubGraph(Column.class.getSimpleName());
+        if (columnLineageGraph == null) {
+            columnLineageGraph = lineageGraph.getSubGraph(Column.class.getSimpleName());
+        }
+        return columnLineageGraph;
     }
 
     private Set<Table> retrieveTagTables(String tag) {
-        return lineageGraph.retrieveVerticesByProps(Collections.singletonMap(tag, true))
-                .stream().map(Table.class::cast).collect(Collectors.toSet());
+        return tagTables.computeIfAbsent(tag, k -> lineageGraph.retrieveVerticesByProps(Collections.singletonMap(tag, true))
+                .stream().map(Table.class::cast).collect(Collectors.toSet()));
     }
 
     public static SQLLineageHolder of(StatementLineageHolder... statementLineageHolders) {
-        LineageGraph graph = buildDiGraph(statementLineageHolders);
+        return of(LineageGraphType.GREMLIN, statementLineageHolders);
+    }
+
+    public static SQLLineageHolder of(LineageGraphType graphType, StatementLineageHolder... statementLineageHolders) {
+        LineageGraph graph = buildDiGraph(graphType, statementLineageHolders);
         return new SQLLineageHolder(graph);
     }
 
-    private static LineageGraph buildDiGraph(StatementLineageHolder... statementLineageHolders) {
-        LineageGraph lineageGraph = new GremlinLineageGraph();
+    private static LineageGraph buildDiGraph(LineageGraphType graphType, StatementLineageHolder... statementLineageHolders) {
+        LineageGraph lineageGraph = graphType.newGraph();
         for (StatementLineageHolder holder : statementLineageHolders) {
-            lineageGraph.merge(holder.getGraph());
-            if (holder.getDrop().size() > 0) {
-                lineageGraph.dropVerticesIfOrphan(holder.getDrop().toArray());
-            } else if (holder.getRename().size() > 0) {
-                for (Pair<Table, Table> p : holder.getRename()) {
-                    Table tableOld = p.getValue0();
-                    Table tableNew = p.getValue1();
-                    for (EdgeTuple edgeTuple : lineageGraph.retrieveEdgesByVertex(tableOld)) {
-                        if (edgeTuple.source().equals(tableOld)) {
-                            lineageGraph.addEdgeIfNotExist(edgeTuple.label(), tableNew, edgeTuple.target());
-                        } else if (edgeTuple.target().equals(tableOld)) {
-                            lineageGraph.addEdgeIfNotExist(edgeTuple.label(), edgeTuple.source(), tableNew);
-                        }
+            merge(lineageGraph, holder);
+        }
+        tagSelfLoops(lineageGraph);
+        return lineageGraph;
+    }
+
+    /**
+     * Merge the lineage of further statements, as if they had been part of the script from the start.
+     * Results returned so far are left as they were, the next requests see the statements added.
+     * <p>
+     * Source, target and intermediate tables already computed are updated for the tables of the new statements only,
+     * as long as none of them renames a table. Column lineage is computed again on next request.
+     */
+    public synchronized void add(StatementLineageHolder... statementLineageHolders) {
+        boolean renamed = false;
+        for (StatementLineageHolder holder : statementLineageHolders) {
+            merge(lineageGraph, holder);
+            if (holder.getRename().size() > 0) {
+                renamed = true;
+            } else if (!renamed) {
+                updateTables(holder);
+            }
+        }
+        if (renamed) {
+            // a RENAME drops self loop edges all over the graph, so tags are recomputed over the whole graph
+            lineageGraph.updateVertices(Collections.singletonMap(NodeTag.SELFLOOP, Boolean.FALSE),
+                    lineageGraph.retrieveVerticesByProps(Collections.singletonMap(NodeTag.SELFLOOP, Boolean.TRUE)).toArray());
+            tagSelfLoops(lineageGraph);
+            sourceTables = null;
+            targetTables = null;
+            intermediateTables = null;
+            tagTables.clear();
+        }
+        tableLineageGraph = null;
+        columnLineageGraph = null;
+        columnLineage.clear();
+        columnLineagePairs.clear();
+    }
+
+    /**
+     * Retag and reclassify the tables of a statement just merged. New edges only ever connect tables of that
+     * statement, and a DROP only removes its own tables, so no other table changes.
+     */
+    private void updateTables(StatementLineageHolder holder) {
+        Set<Table> read = holder.getRead();
+        Set<Table> write = holder.getWrite();
+        Set<Table> drop = holder.getDrop();
+        if (drop.isEmpty() && read.size() > 0 && write.size() == 0) {
+            updateTagTables(NodeTag.SOURCE_ONLY, read, true);
+        } else if (drop.isEmpty() && read.size() == 0 && write.size() > 0) {
+            updateTagTables(NodeTag.TARGET_ONLY, write, true);
+        }
+        Set<Table> tables = holder.getGraph().retrieveVerticesByProps(Collections.emptyMap()).stream()
+                .filter(Table.class::isInstance).map(Table.class::cast).collect(Collectors.toSet());
+        Set<Table> sources = sourceTables == null ? null : new HashSet<>(sourceTables);
+        Set<Table> targets = targetTables == null ? null : new HashSet<>(targetTables);
+        Set<Table> intermediates = intermediateTables == null ? null : new HashSet<>(intermediateTables);
+        for (Table table : tables) {
+            boolean in = false;
+            boolean out = false;
+            boolean selfLoop = false;
+            List<EdgeTuple> edges = lineageGraph.retrieveEdgesByVertex(table);
+            for (EdgeTuple edge : edges) {
+                if (edge.source() instanceof Table && edge.target() instanceof Table) {
+                    in |= table.equals(edge.target());
+                    out |= table.equals(edge.source());
+                    selfLoop |= edge.source().equals(edge.target());
+                }
+            }
+            // a dropped table is only gone if nothing was connected to it
+            boolean exists = !drop.contains(table) || !edges.isEmpty();
+            if (exists) {
+                lineageGraph.updateVertices(Collections.singletonMap(NodeTag.SELFLOOP, selfLoop), table);
+            } else {
+                updateTagTables(NodeTag.SOURCE_ONLY, Set.of(table), false);
+                updateTagTables(NodeTag.TARGET_ONLY, Set.of(table), false);
+            }
+            updateTagTables(NodeTag.SELFLOOP, Set.of(table), selfLoop);
+            if (sources != null) {
+                update(sources, table, out && !in || hasTag(NodeTag.SOURCE_ONLY, table) || selfLoop);
+            }
+            if (targets != null) {
+                update(targets, table, in && !out || hasTag(NodeTag.TARGET_ONLY, table) || selfLoop);
+            }
+            if (intermediates != null) {
+                update(intermediates, table, in && out && !selfLoop);
+            }
+        }
+        sourceTables = sources == null ? null : Collections.unmodifiableSet(sources);
+        targetTables = targets == null ? null : Collections.unmodifiableSet(targets);
+        intermediateTables = intermediates == null ? null : Collections.unmodifiableSet(intermediates);
+    }
+
+    private void updateTagTables(String tag, Set<Table> tables, boolean tagged) {
+        // only tag sets computed so far are kept up to date, the others are computed from the graph when needed
+        Set<Table> tagTable = tagTables.get(tag);
+        if (tagTable != null) {
+            for (Table table : tables) {
+                update(tagTable, table, tagged);
+            }
+        }
+    }
+
+    private boolean hasTag(String tag, Table table) {
+        return tagTables.get(tag).contains(table);
+    }
+
+    private static void update(Set<Table> tables, Table table, boolean member) {
+        if (member) {
+            tables.add(table);
+        } else {
+            tables.remove(table);
+        }
+    }
+
+    private static void merge(LineageGraph lineageGraph, StatementLineageHolder holder) {
+        lineageGraph.merge(holder.getGraph());
+        if (holder.getDrop().size() > 0) {
+            lineageGraph.dropVerticesIfOrphan(holder.getDrop().toArray());
+        } else if (holder.getRename().size() > 0) {
+            for (Pair<Table, Table> p : holder.getRename()) {
+                Table tableOld = p.getValue0();
+                Table tableNew = p.getValue1();
+                for (EdgeTuple edgeTuple : lineageGraph.retrieveEdgesByVertex(tableOld)) {
+                    if (edgeTuple.source().equals(tableOld)) {
+                        lineageGraph.addEdgeIfNotExist(edgeTuple.label(), tableNew, edgeTuple.target());
+                    } else if (edgeTuple.target().equals(tableOld)) {
+                        lineageGraph.addEdgeIfNotExist(edgeTuple.label(), edgeTuple.source(), tableNew);
                     }
-                    lineageGraph.dropVertices(tableOld);
-                    lineageGraph.dropSelfLoopEdge();
-                    lineageGraph.dropVerticesIfOrphan(tableNew);
                 }
+                lineageGraph.dropVertices(tableOld);
+                lineageGraph.dropSelfLoopEdge();
+                lineageGraph.dropVerticesIfOrphan(tableNew);
+            }
+        } else {
+            Set<Table> read = holder.getRead();
+            Set<Table> write = holder.getWrite();
+            if (read.size() > 0 && write.size() == 0) {
+                // source only table comes from SELECT statement
+                lineageGraph.updateVertices(Collections.singletonMap(NodeTag.SOURCE_ONLY, Boolean.TRUE), read.toArray());
+            } else if (read.size() == 0 && write.size() > 0) {
+                // target only table comes from case like: 1) INSERT/UPDATE constant values; 2) CREATE TABLE
+                lineageGraph.updateVertices(Collections.singletonMap(NodeTag.TARGET_ONLY, Boolean.TRUE), write.toArray());
             } else {
-                Set<Table> read = holder.getRead();
-                Set<Table> write = holder.getWrite();
-                if (read.size() > 0 && write.size() == 0) {
-                    // source only table comes from SELECT statement
-                    lineageGraph.updateVertices(Collections.singletonMap(NodeTag.SOURCE_ONLY, Boolean.TRUE), read.toArray());
-                } else if (read.size() == 0 && write.size() > 0) {
-                    // target only table comes from case like: 1) INSERT/UPDATE constant values; 2) CREATE TABLE
-                    lineageGraph.updateVertices(Collections.singletonMap(NodeTag.TARGET_ONLY, Boolean.TRUE), write.toArray());
-                } else {
-                    for (Table r : read) {
-                        for (Table w : write) {
-                            lineageGraph.addEdgeIfNotExist(EdgeType.LINEAGE, r, w);
-                        }
+                for (Table r : read) {
+                    for (Table w : write) {
+                        lineageGraph.addEdgeIfNotExist(EdgeType.LINEAGE, r, w);
                     }
                 }
             }
         }
+    }
+
+    private static void tagSelfLoops(LineageGraph lineageGraph) {
         lineageGraph.updateVertices(Collections.singletonMap(NodeTag.SELFLOOP, Boolean.TRUE),
                 lineageGraph.retrieveSelfLoopVertices().stream().filter(x -> x instanceof Table).toArray());
-        return lineageGraph;
     }
 }
@@ -1,8 +1,10 @@
 package io.github.reata.sqllineage4j.core.holder;
 
 import io.github.reata.sqllineage4j.common.constant.EdgeType;
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
 import io.github.reata.sqllineage4j.common.constant.NodeTag;
 import io.github.reata.sqllineage4j.common.model.Table;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
 import org.javatuples.Pair;
 
 import java.util.Set;
@@ -10,6 +12,18 @@ import java.util.stream.Collectors;
 
 public class StatementLineageHolder extends SubQueryLineageHolder {
 
+    public StatementLineageHolder() {
+        this(LineageGraphType.GREMLIN);
+    }
+
+    public StatementLineageHolder(LineageGraphType graphType) {
+        super(graphType);
+    }
+
+    public StatementLineageHolder(LineageGraphType graphType, LineageLevel level) {
+        super(graphType, level);
+    }
+
     @Override
     public Set<Table> getRead() {
         return super.getRead().stream().filter(x -> x instanceof Table).map(x -> (Table) x).collect(Collectors.toSet());
@@ -1,24 +1,49 @@
 package io.github.reata.sqllineage4j.core.holder;
 
 import io.github.reata.sqllineage4j.common.constant.EdgeType;
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
 import io.github.reata.sqllineage4j.common.constant.NodeTag;
 import io.github.reata.sqllineage4j.common.entity.EdgeTuple;
 import io.github.reata.sqllineage4j.common.model.Column;
 import io.github.reata.sqllineage4j.common.model.QuerySet;
 import io.github.reata.sqllineage4j.common.model.SubQuery;
-import io.github.reata.sqllineage4j.graph.GremlinLineageGraph;
 import io.github.reata.sqllineage4j.graph.LineageGraph;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class SubQueryLineageHolder {
-    final LineageGraph lineageGraph = new GremlinLineageGraph();
+    final LineageGraph lineageGraph;
+    final LineageGraphType graphType;
+    final LineageLevel level;
+
+    public SubQueryLineageHolder() {
+        this(LineageGraphType.GREMLIN);
+    }
+
+    public SubQueryLineageHolder(LineageGraphType graphType) {
+        this(graphType, LineageLevel.COLUMN);
+    }
+
+    public SubQueryLineageHolder(LineageGraphType graphType, LineageLevel level) {
+        this.lineageGraph = graphType.newGraph();
+        this.graphType = graphType;
+        this.level = level;
+    }
 
     public LineageGraph getGraph() {
         return lineageGraph;
     }
 
+    public LineageGraphType getGraphType() {
+        return graphType;
+    }
+
+    public LineageLevel getLevel() {
+        return level;
+    }
+
     void propertySetter(QuerySet value, String prop) {
         lineageGraph.addVertexIfNotExist(value, Collections.singletonMap(prop, Boolean.TRUE));
     }
@@ -57,6 +82,9 @@ public class SubQueryLineageHolder {
     }
 
     public void addColumnLineage(Column src, Column tgt) {
+        if (level == LineageLevel.TABLE) {
+            return;
+        }
         lineageGraph.addVertexIfNotExist(src);
         lineageGraph.addVertexIfNotExist(tgt);
         lineageGraph.addEdgeIfNotExist(EdgeType.LINEAGE, src, tgt);
@@ -0,0 +1,50 @@
+package io.github.reata.sqllineage4j.core.metrics;
+
+/**
+ * Receives timings and sizes from a {@link io.github.reata.sqllineage4j.core.LineageRunner} as it works.
+ * All methods do nothing by default, so implementations only override what they are interested in.
+ * <p>
+ * When the runner analyzes statements concurrently, {@link #statementAnalyzed} is called from the worker threads,
+ * in no particular order.
+ */
+public interface LineageMetrics {
+
+    enum Phase {
+        /**
+         * Splitting scripts into statements, including reading them when the runner is given a reader.
+         */
+        SPLIT,
+        /**
+         * Combining statement lineage into the lineage of the whole script.
+         */
+        COMBINE,
+        /**
+         * Retrieving tables or column lineage from the combined lineage, once per call on the runner.
+         */
+        QUERY
+    }
+
+    /**
+     * Called once per statement after it has been parsed and analyzed, which does not happen for statements found in
+     * the runner's {@link io.github.reata.sqllineage4j.core.cache.StatementCache}.
+     */
+    default void statementAnalyzed(StatementMetrics metrics) {
+    }
+
+    default void phaseCompleted(Phase phase, long nanos) {
+    }
+
+    /**
+     * Size of the graph the lineage of all statements is combined into.
+     */
+    default void graphCombined(int vertices, int edges) {
+    }
+
+    /**
+     * Whether to measure the bytes allocated by each statement, which costs two extra calls into the JVM per
+     * statement. Only supported on JVMs providing {@link com.sun.management.ThreadMXBean}.
+     */
+    default boolean isAllocationTracked() {
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.reata.sqllineage4j.core.metrics;
+
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * Collects everything reported by a runner, for a summary of where the time went and which statements took longest.
+ * Safe to share between runners and threads.
+ */
+public class LineageProfile implements LineageMetrics {
+    private final boolean allocationTracked;
+    private final List<StatementMetrics> statements = new ArrayList<>();
+    private final Map<Phase, Long> phaseNanos = new EnumMap<>(Phase.class);
+    private int vertices;
+    private int edges;
+
+    public LineageProfile() {
+        this(false);
+    }
+
+    public LineageProfile(boolean allocationTracked) {
+        this.allocationTracked = allocationTracked;
+    }
+
+    @Override
+    public synchronized void statementAnalyzed(StatementMetrics metrics) {
+        statements.add(metrics);
+    }
+
+    @Override
+    public synchronized void phaseCompleted(Phase phase, long nanos) {
+        phaseNanos.merge(phase, nanos, Long::sum);
+    }
+
+    @Override
+    public synchronized void graphCombined(int vertices, int edges) {
+        this.vertices = vertices;
+        this.edges = edges;
+    }
+
+    @Override
+    public boolean isAllocationTracked() {
+        return allocationTracked;
+    }
+
+    /**
+     * Metrics of all statements, in statement order.
+     */
+    public synchronized List<StatementMetrics> getStatements() {
+        List<StatementMetrics> sorted = new ArrayList<>(statements);
+        sorted.sort(Comparator.comparingInt(StatementMetrics::getIndex));
+        return sorted;
+    }
+
+    /**
+     * The given number of statements which took longest to parse and analyze, slowest first.
+     */
+    public synchronized List<StatementMetrics> getSlowest(int count) {
+        List<StatementMetrics> sorted = new ArrayList<>(statements);
+        sorted.sort(Comparator.comparingLong(StatementMetrics::getTotalNanos).reversed());
+        return sorted.subList(0, Math.min(count, sorted.size()));
+    }
+
+    public synchronized long getPhaseNanos(Phase phase) {
+        return phaseNanos.getOrDefault(phase, 0L);
+    }
+
+    public synchronized long getParseNanos() {
+        return statements.stream().mapToLong(StatementMetrics::getParseNanos).sum();
+    }
+
+    public synchronized long getAnalyzeNanos() {
+        return statements.stream().mapToLong(StatementMetrics::getAnalyzeNanos).sum();
+    }
+
+    public synchronized void print(PrintStream out, int slowest) {
+        StringBuilder profile = new StringBuilder("Profile:\n")
+                .append("    Statements Analyzed(#): ").append(statements.size()).append("\n")
+                .append("    Split: ").append(millis(getPhaseNanos(Phase.SPLIT))).append("\n")
+                .append("    Parse: ").append(millis(getParseNanos())).append("\n")
+                .append("    Analyze: ").append(millis(getAnalyzeNanos())).append("\n")
+                .append("    Combine: ").append(millis(getPhaseNanos(Phase.COMBINE))).append("\n")
+                .append("    Query: ").append(millis(getPhaseNanos(Phase.QUERY))).append("\n")
+                .append("    Tokens(#): ").append(statements.stream().mapToLong(StatementMetrics::getTokens).sum()).append("\n")
+                .append("    Parse Tree Nodes(#): ").append(statements.stream().mapToLong(StatementMetrics::getTreeNodes).sum()).append("\n")
+                .append("    Combined Graph: ").append(vertices).append(" vertices, ").append(edges).append(" edges\n");
+        if (allocationTracked) {
+            long allocated = statements.stream().mapToLong(StatementMetrics::getAllocatedBytes).filter(b -> b >= 0).sum();
+            profile.append("    Allocated: ").append(allocated / 1024).append(" KB\n");
+        }
+        profile.append("Slowest Statements:\n");
+        for (StatementMetrics metrics : getSlowest(slowest)) {
+            String stmtShort = metrics.getStatement().trim().replace("\n", "");
+            if (stmtShort.length() > 50) {
+                stmtShort = stmtShort.substring(0, 50) + "...";
+            }
+            profile.append("    Statement #").append(metrics.getIndex() + 1).append(": ").append(millis(metrics.getTotalNanos()))
+                    .append(" (parse ").append(millis(metrics.getParseNanos()))
+                    .append(", analyze ").append(millis(metrics.getAnalyzeNanos()))
+                    .append(", ").append(metrics.getTokens()).append(" tokens")
+                    .append(", ").append(metrics.getVertices()).append(" vertices");
+            if (metrics.getAllocatedBytes() >= 0) {
+                profile.append(", ").append(metrics.getAllocatedBytes() / 1024).append(" KB");
+            }
+            profile.append(") ").append(stmtShort).append("\n");
+        }
+        out.print(profile);
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f ms", nanos / 1e6);
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.reata.sqllineage4j.core.metrics;
+
+/**
+ * Timings and sizes of parsing and analyzing a single statement.
+ */
+public class StatementMetrics {
+    private final int index;
+    private final String statement;
+    private final long parseNanos;
+    private final long analyzeNanos;
+    private final int tokens;
+    private final int treeNodes;
+    private final int vertices;
+    private final int edges;
+    private final long allocatedBytes;
+
+    public StatementMetrics(int index, String statement, long parseNanos, long analyzeNanos, int tokens, int treeNodes,
+                            int vertices, int edges, long allocatedBytes) {
+        this.index = index;
+        this.statement = statement;
+        this.parseNanos = parseNanos;
+        this.analyzeNanos = analyzeNanos;
+        this.tokens = tokens;
+        this.treeNodes = treeNodes;
+        this.vertices = vertices;
+        this.edges = edges;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * Position of the statement in the runner's input, starting from 0.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getStatement() {
+        return statement;
+    }
+
+    public long getParseNanos() {
+        return parseNanos;
+    }
+
+    public long getAnalyzeNanos() {
+        return analyzeNanos;
+    }
+
+    public long getTotalNanos() {
+        return parseNanos + analyzeNanos;
+    }
+
+    /**
+     * Number of tokens in the parse tree, not counting whitespace and comments.
+     */
+    public int getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Number of nodes in the parse tree, tokens included.
+     */
+    public int getTreeNodes() {
+        return treeNodes;
+    }
+
+    /**
+     * Number of vertices in the lineage graph of this statement.
+     */
+    public int getVertices() {
+        return vertices;
+    }
+
+    public int getEdges() {
+        return edges;
+    }
+
+    /**
+     * Bytes allocated while parsing and analyzing, or -1 if not measured.
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+}
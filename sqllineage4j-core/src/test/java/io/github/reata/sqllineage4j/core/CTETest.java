@@ -72,4 +72,9 @@ public class CTETest {
     public void testWithInsertOverwritePlusKeywordTable() {
         assertTableLineage("WITH tab1 AS (SELECT * FROM tab2) INSERT OVERWRITE TABLE tab3 SELECT * FROM tab1", Set.of("tab2"), Set.of("tab3"));
     }
+
+    @Test
+    public void testWithReferenceCaseInsensitive() {
+        assertTableLineage("WITH Cte1 AS (SELECT * FROM tab2) INSERT OVERWRITE TABLE tab3 SELECT * FROM CTE1", Set.of("tab2"), Set.of("tab3"));
+    }
 }
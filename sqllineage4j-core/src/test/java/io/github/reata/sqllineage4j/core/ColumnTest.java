@@ -271,6 +271,17 @@ public class ColumnTest {
                         ColumnQualifierTuple.create("col1", "tab1"))));
     }
 
+    @Test
+    public void testSelectColumnInDeeplyNestedSubquery() {
+        String query = "SELECT col1 FROM tab2";
+        for (int depth = 1; depth <= 40; depth++) {
+            query = "SELECT dt" + depth + ".col1 FROM (" + query + ") dt" + depth;
+        }
+        assertColumnLineage("INSERT OVERWRITE TABLE tab1\n" + query,
+                Set.of(Pair.with(ColumnQualifierTuple.create("col1", "tab2"),
+                        ColumnQualifierTuple.create("col1", "tab1"))));
+    }
+
     @Test
     public void testSelectColumnInSubqueryWithTwoParenthesis() {
         assertColumnLineage("INSERT OVERWRITE TABLE tab1\n" +
@@ -605,4 +616,16 @@ public class ColumnTest {
                         Pair.with(ColumnQualifierTuple.create("col1", "tab1"),
                                 ColumnQualifierTuple.create("col2", "tab2"))));
     }
+
+    @Test
+    public void testColumnQualifierCaseInsensitive() {
+        assertColumnLineage("INSERT OVERWRITE TABLE tab1\n" +
+                        "SELECT A.Col1 AS col2, Tab3.col3\n" +
+                        "FROM tab2 a\n" +
+                        "         JOIN TAB3 ON a.id = tab3.id",
+                Set.of(Pair.with(ColumnQualifierTuple.create("col1", "tab2"),
+                                ColumnQualifierTuple.create("col2", "tab1")),
+                        Pair.with(ColumnQualifierTuple.create("col3", "tab3"),
+                                ColumnQualifierTuple.create("col3", "tab1"))));
+    }
 }
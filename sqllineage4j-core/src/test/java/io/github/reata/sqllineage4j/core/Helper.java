@@ -1,8 +1,10 @@
 package io.github.reata.sqllineage4j.core;
 
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
 import io.github.reata.sqllineage4j.common.entity.ColumnQualifierTuple;
 import io.github.reata.sqllineage4j.common.model.Column;
 import io.github.reata.sqllineage4j.common.model.Table;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
 import org.javatuples.Pair;
 
 import java.util.HashSet;
@@ -23,9 +25,13 @@ public class Helper {
     }
 
     public static void assertTableLineage(String sql, Set<String> sourceTables, Set<String> targetTables) {
-        LineageRunner runner = LineageRunner.builder(sql).build();
-        assertEquals("Source Table Equal", sourceTables.stream().map(Table::new).collect(Collectors.toSet()), Set.copyOf(runner.sourceTables()));
-        assertEquals("Target Table Equal", targetTables.stream().map(Table::new).collect(Collectors.toSet()), Set.copyOf(runner.targetTables()));
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            for (LineageLevel level : LineageLevel.values()) {
+                LineageRunner runner = LineageRunner.builder(sql).graphType(graphType).level(level).build();
+                assertEquals("Source Table Equal", sourceTables.stream().map(Table::new).collect(Collectors.toSet()), Set.copyOf(runner.sourceTables()));
+                assertEquals("Target Table Equal", targetTables.stream().map(Table::new).collect(Collectors.toSet()), Set.copyOf(runner.targetTables()));
+            }
+        }
     }
 
     public static void assertColumnLineage(String sql, Set<Pair<ColumnQualifierTuple, ColumnQualifierTuple>> columnLineages) {
@@ -41,8 +47,10 @@ public class Helper {
             tgtCol.setParent(new Table(Objects.requireNonNull(tgtCqt.qualifier())));
             expected.add(Pair.with(srcCol, tgtCol));
         }
-        LineageRunner runner = LineageRunner.builder(sql).build();
-        Set<Pair<Column, Column>> actual = new HashSet<>(runner.getColumnLineage());
-        assertEquals(expected, actual);
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            LineageRunner runner = LineageRunner.builder(sql).graphType(graphType).build();
+            Set<Pair<Column, Column>> actual = new HashSet<>(runner.getColumnLineage());
+            assertEquals(expected, actual);
+        }
     }
 }
@@ -1,10 +1,47 @@
 package io.github.reata.sqllineage4j.core;
 
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
+import io.github.reata.sqllineage4j.common.model.SubQuery;
+import io.github.reata.sqllineage4j.common.model.Table;
+import io.github.reata.sqllineage4j.core.cache.DiskStatementCache;
+import io.github.reata.sqllineage4j.core.cache.LruStatementCache;
+import io.github.reata.sqllineage4j.core.cache.StatementCache;
+import io.github.reata.sqllineage4j.core.holder.StatementLineageHolder;
+import io.github.reata.sqllineage4j.core.metrics.LineageMetrics;
+import io.github.reata.sqllineage4j.core.metrics.LineageProfile;
+import io.github.reata.sqllineage4j.core.metrics.StatementMetrics;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
+import io.github.reata.sqllineage4j.parser.LineageParser;
+import io.github.reata.sqllineage4j.parser.SqlBaseParser;
+import org.antlr.v4.runtime.tree.ParseTree;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.github.reata.sqllineage4j.core.Helper.assertTableLineage;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeNotNull;
 
 public class OtherTest {
     @Test
@@ -165,4 +202,226 @@ public class OtherTest {
     public void testShowCreateTable() {
         assertTableLineage("show create table tab1", Set.of());
     }
+
+    @Test
+    public void testParallelAnalysis() {
+        String sql = "create table tab_a as select * from tab_b;\n" +
+                "insert overwrite table tab_c select * from tab_a;\n" +
+                "drop table tab_a;\n" +
+                "insert overwrite tab1 select * from tab2;\n" +
+                "alter table tab1 rename to tab3;\n" +
+                "insert overwrite tab4 select * from tab3";
+        Set<Table> sourceTables = Set.of(new Table("tab_b"), new Table("tab2"));
+        Set<Table> targetTables = Set.of(new Table("tab_c"), new Table("tab4"));
+        LineageRunner runner = LineageRunner.builder(sql).parallelism(4).build();
+        assertEquals(sourceTables, Set.copyOf(runner.sourceTables()));
+        assertEquals(targetTables, Set.copyOf(runner.targetTables()));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            runner = LineageRunner.builder(sql).executor(executor).build();
+            assertEquals(sourceTables, Set.copyOf(runner.sourceTables()));
+            assertEquals(targetTables, Set.copyOf(runner.targetTables()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testReaderInput() {
+        String sql = "insert overwrite table tab1 select * from tab2;\n" +
+                "insert overwrite table tab3 select * from tab1";
+        LineageRunner runner = LineageRunner.builder(new StringReader(sql)).build();
+        assertEquals(Set.of(new Table("tab2")), Set.copyOf(runner.sourceTables()));
+        assertEquals(Set.of(new Table("tab3")), Set.copyOf(runner.targetTables()));
+        assertEquals(Set.of(new Table("tab1")), Set.copyOf(runner.intermediateTables()));
+    }
+
+    @Test
+    public void testReaderFailure() {
+        String sql = "insert overwrite table tab1 select * from tab0;\n" +
+                "insert overwrite table tab2 select * from tab1;\n";
+        Reader reader = new StringReader(sql + sql.replace("tab", "t")) {
+            private boolean failed = false;
+
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                if (!failed) {
+                    failed = true;
+                    throw new IOException("disk error");
+                }
+                return super.read(cbuf, off, len);
+            }
+        };
+        LineageRunner runner = LineageRunner.builder(reader).build();
+        UncheckedIOException first = assertThrows(UncheckedIOException.class, runner::sourceTables);
+        // no partial lineage from the rest of the reader on later calls
+        assertSame(first, assertThrows(UncheckedIOException.class, runner::sourceTables));
+        assertSame(first, assertThrows(UncheckedIOException.class, runner::getStatementLineageHolders));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testColumnLineageAtTableLevel() {
+        LineageRunner.builder("insert overwrite table tab1 select col1 from tab2").level(LineageLevel.TABLE).build().getColumnLineage();
+    }
+
+    @Test
+    public void testProfile() {
+        String sql = "insert overwrite table tab1 select col1 from tab2;\n" +
+                "insert overwrite table tab3 select col1 from tab1";
+        LineageProfile profile = new LineageProfile(true);
+        LineageRunner runner = LineageRunner.builder(sql).metrics(profile).build();
+        runner.getColumnLineage();
+        List<StatementMetrics> statements = profile.getStatements();
+        assertEquals(2, statements.size());
+        assertEquals(0, statements.get(0).getIndex());
+        // INSERT OVERWRITE TABLE tab1 SELECT col1 FROM tab2
+        assertEquals(8, statements.get(0).getTokens());
+        assertTrue(statements.get(0).getTreeNodes() > statements.get(0).getTokens());
+        assertTrue(statements.get(0).getEdges() > 0);
+        assertTrue(profile.getParseNanos() > 0);
+        assertTrue(profile.getPhaseNanos(LineageMetrics.Phase.QUERY) > 0);
+        assertEquals(1, profile.getSlowest(1).size());
+    }
+
+    @Test
+    public void testSession() {
+        List<String> statements = List.of(
+                "insert overwrite table tab1 select col1 from tab2",
+                "insert overwrite table tab3 select col1 from tab1",
+                "insert overwrite table tab4 select col1 from tab4",
+                "alter table tab4 rename to tab5",
+                "insert overwrite table tab6 select col1 from tab3",
+                "drop table tab6",
+                "select col1 from tab7",
+                "create table tab8 (col1 int)",
+                "insert overwrite table tab9 select col1 from tab8",
+                "insert overwrite table tab9 select col1 from tab9",
+                "insert overwrite table tab10 select col1 from tab10",
+                "drop table tab3",
+                "drop table tab7",
+                "insert overwrite table tab11 select col1 from tab9");
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            LineageSession session = LineageSession.builder().graphType(graphType).build();
+            for (int i = 0; i < statements.size(); i++) {
+                session.add(statements.get(i));
+                LineageRunner runner = LineageRunner.builder(String.join(";\n", statements.subList(0, i + 1)))
+                        .graphType(graphType).build();
+                assertEquals(Set.copyOf(runner.sourceTables()), Set.copyOf(session.sourceTables()));
+                assertEquals(Set.copyOf(runner.targetTables()), Set.copyOf(session.targetTables()));
+                assertEquals(Set.copyOf(runner.intermediateTables()), Set.copyOf(session.intermediateTables()));
+                assertEquals(Set.copyOf(runner.getColumnLineage()), Set.copyOf(session.getColumnLineage()));
+            }
+            assertEquals(statements.size(), session.getStatementCount());
+        }
+    }
+
+    @Test
+    public void testStatementCache() {
+        String sql = "insert overwrite table tab1 select col1 from tab2;\n" +
+                "insert overwrite table tab3 select col1 from tab1";
+        LruStatementCache cache = new LruStatementCache(10);
+        LineageRunner first = LineageRunner.builder(sql).cache(cache).build();
+        LineageRunner second = LineageRunner.builder("  " + sql + "\n").cache(cache).build();
+        assertEquals(Set.copyOf(first.getColumnLineage()), Set.copyOf(second.getColumnLineage()));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(2, cache.size());
+
+        // results depend on the level, so it is part of the key
+        LineageRunner.builder(sql).level(LineageLevel.TABLE).cache(cache).build().sourceTables();
+        assertEquals(4, cache.getMissCount());
+
+        LruStatementCache small = new LruStatementCache(1);
+        LineageRunner.builder(sql).cache(small).build().sourceTables();
+        assertEquals(1, small.size());
+        assertEquals(1, small.getEvictionCount());
+    }
+
+    @Test
+    public void testDiskStatementCache() throws IOException {
+        String sql = "insert overwrite table db.tab1 select a.col1, b.col2 as col2 from tab2 a join (select col2 from tab3) b;\n" +
+                "with cte1 as (select col1 from tab4) insert overwrite table tab5 select col1 from cte1;\n" +
+                "insert overwrite table tab6 select col1 from tab6;\n" +
+                "alter table tab6 rename to tab7;\n" +
+                "drop table tab5;\n" +
+                "select col1 from tab8";
+        // nothing is cached when run without the maven build, which records version and build time
+        assumeNotNull(DiskStatementCache.getVersion());
+        // a snapshot is told apart by its build
+        assertFalse(DiskStatementCache.getVersion().endsWith("-SNAPSHOT"));
+        Path dir = Files.createTempDirectory("cache");
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            LineageRunner analyzed = LineageRunner.builder(sql).graphType(graphType).cache(new DiskStatementCache(dir)).build();
+            DiskStatementCache disk = new DiskStatementCache(dir);
+            StatementCache readOnly = new StatementCache() {
+                @Override
+                public StatementLineageHolder get(String key) {
+                    StatementLineageHolder holder = disk.get(key);
+                    assertNotNull(holder);
+                    return holder;
+                }
+
+                @Override
+                public void put(String key, StatementLineageHolder holder) {
+                    fail("statement should have been read from disk");
+                }
+            };
+            LineageRunner cached = LineageRunner.builder(sql).graphType(graphType).cache(readOnly).build();
+            assertEquals(Set.copyOf(analyzed.sourceTables()), Set.copyOf(cached.sourceTables()));
+            assertEquals(Set.copyOf(analyzed.targetTables()), Set.copyOf(cached.targetTables()));
+            assertEquals(Set.copyOf(analyzed.intermediateTables()), Set.copyOf(cached.intermediateTables()));
+            assertEquals(Set.copyOf(analyzed.getColumnLineage(false)), Set.copyOf(cached.getColumnLineage(false)));
+            for (int i = 0; i < 6; i++) {
+                assertEquals(analyzed.getStatementLineageHolders().get(i).toString(), cached.getStatementLineageHolders().get(i).toString());
+            }
+        }
+        // corrupted entries are misses, and are removed so that they get written again
+        List<Path> entries;
+        try (Stream<Path> files = Files.walk(dir)) {
+            entries = files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        DiskStatementCache disk = new DiskStatementCache(dir);
+        for (Path entry : entries) {
+            byte[] bytes = Files.readAllBytes(entry);
+            Files.write(entry, Arrays.copyOf(bytes, bytes.length / 2));
+            assertNull(disk.get(entry.getFileName().toString()));
+            assertFalse(Files.exists(entry));
+        }
+        LineageRunner rewritten = LineageRunner.builder(sql).cache(disk).build();
+        assertEquals(6, rewritten.getStatementLineageHolders().size());
+        assertTrue(entries.stream().anyMatch(Files::exists));
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testSubQueryFingerprint() {
+        ParseTree tree = LineageParser.parse("INSERT OVERWRITE TABLE tab1\n" +
+                "SELECT col1\n" +
+                "FROM (SELECT col1\n" +
+                "      FROM (SELECT col1 FROM tab2) /* inner */ dt1) dt2");
+        List<SqlBaseParser.AliasedQueryContext> queries = new ArrayList<>();
+        collectAliasedQueries(tree, queries);
+        assertEquals(2, queries.size());
+        QueryFingerprinter fingerprinter = new QueryFingerprinter(tree);
+        for (SqlBaseParser.AliasedQueryContext query : queries) {
+            SubQuery subQuery = fingerprinter.subQuery(query.query(), query.tableAlias().getText());
+            assertEquals(new SubQuery(query.query().getText(), "sq"), subQuery);
+            assertEquals(query.query().getText().length(), subQuery.getLength());
+        }
+        SubQuery outer = fingerprinter.subQuery(queries.get(0).query(), "dt2");
+        assertEquals("SELECT col1\n      FROM (SELECT col1 FROM tab2) /* inner */ dt1", outer.getQuery());
+        assertEquals(outer, outer.withAlias("other"));
+        assertEquals("other", outer.withAlias("other").toString());
+    }
+
+    private static void collectAliasedQueries(ParseTree tree, List<SqlBaseParser.AliasedQueryContext> queries) {
+        if (tree instanceof SqlBaseParser.AliasedQueryContext) {
+            queries.add((SqlBaseParser.AliasedQueryContext) tree);
+        }
+        for (int i = 0; i < tree.getChildCount(); i++) {
+            collectAliasedQueries(tree.getChild(i), queries);
+        }
+    }
 }
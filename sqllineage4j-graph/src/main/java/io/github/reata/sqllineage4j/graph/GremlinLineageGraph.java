@@ -2,7 +2,6 @@ package io.github.reata.sqllineage4j.graph;
 
 import io.github.reata.sqllineage4j.common.entity.EdgeTuple;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
-import org.apache.tinkerpop.gremlin.process.traversal.Path;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
@@ -13,36 +12,44 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public class GremlinLineageGraph implements LineageGraph {
+    private final Graph graph;
     private final GraphTraversalSource g;
-
-//    public GraphTraversalSource getG() {
-//        return g;
-//    }
+    private final VertexIdRegistry registry;
 
     public GremlinLineageGraph() {
-        this.g = TinkerGraph.open().traversal();
+        this(TinkerGraph.open(), new VertexIdRegistry());
     }
 
-    public GremlinLineageGraph(Graph graph) {
+    private GremlinLineageGraph(Graph graph, VertexIdRegistry registry) {
+        this.graph = graph;
         this.g = graph.traversal();
+        this.registry = registry;
     }
 
     public void addVertexIfNotExist(Object obj) {
-        HashMap<String, Object> props = new HashMap<>();
-        addVertexIfNotExist(obj, props);
+        addVertexIfNotExist(obj, Collections.emptyMap());
     }
 
     public void addVertexIfNotExist(Object obj, Map<String, Object> props) {
-        int id = obj.hashCode();
-        String label = obj.getClass().getSimpleName();
-        GraphTraversal<Vertex, Vertex> step = g.V().hasLabel(label).hasId(id).fold()
-                .coalesce(__.unfold(),
-                        __.addV(label).property(T.id, id))
-                .property("obj", obj);
+        long id = registry.intern(obj);
+        Vertex vertex = findVertexById(id);
+        if (vertex == null) {
+            vertex = graph.addVertex(T.id, id, T.label, obj.getClass().getSimpleName());
+        }
+        vertex.property("obj", obj);
         for (Map.Entry<String, Object> entry : props.entrySet()) {
-            step = step.property(entry.getKey(), entry.getValue());
+            vertex.property(entry.getKey(), entry.getValue());
         }
-        step.iterate();
+    }
+
+    private Vertex findVertex(Object obj) {
+        long id = registry.idOf(obj);
+        return id == VertexIdRegistry.ABSENT ? null : findVertexById(id);
+    }
+
+    private Vertex findVertexById(long id) {
+        Iterator<Vertex> vertices = graph.vertices(id);
+        return vertices.hasNext() ? vertices.next() : null;
     }
 
     public List<Object> retrieveVerticesByProps(Map<String, Object> props) {
@@ -74,11 +81,14 @@ public class GremlinLineageGraph implements LineageGraph {
     }
 
     public void updateVertices(Map<String, Object> props, Object... objects) {
-        GraphTraversal<Vertex, Vertex> step = g.V().hasId(Arrays.stream(objects).map(Object::hashCode).toArray());
-        for (Map.Entry<String, Object> entry : props.entrySet()) {
-            step = step.property(entry.getKey(), entry.getValue());
+        for (Object obj : objects) {
+            Vertex vertex = findVertex(obj);
+            if (vertex != null) {
+                for (Map.Entry<String, Object> entry : props.entrySet()) {
+                    vertex.property(entry.getKey(), entry.getValue());
+                }
+            }
         }
-        step.iterate();
     }
 
     public void dropVertices(Object... objects) {
@@ -90,18 +100,28 @@ public class GremlinLineageGraph implements LineageGraph {
     }
 
     private void dropVertices(boolean orphan, Object... objects) {
-        GraphTraversal<Vertex, Vertex> step = g.V().hasId(Arrays.stream(objects).map(Object::hashCode).toArray());
-        if (orphan) {
-            step = step.not(__.bothE());
+        for (Object obj : objects) {
+            Vertex vertex = findVertex(obj);
+            if (vertex != null && !(orphan && vertex.edges(Direction.BOTH).hasNext())) {
+                vertex.remove();
+                registry.release(obj);
+            }
         }
-        step.drop().iterate();
     }
 
     public void addEdgeIfNotExist(String label, Object src, Object tgt) {
-        g.V().hasLabel(src.getClass().getSimpleName()).hasId(src.hashCode()).as("src")
-                .V().hasLabel(tgt.getClass().getSimpleName()).hasId(tgt.hashCode())
-                .coalesce(__.inE(label).where(__.outV().as("src")),
-                        __.addE(label).from("src")).iterate();
+        Vertex srcVertex = findVertex(src);
+        Vertex tgtVertex = findVertex(tgt);
+        if (srcVertex == null || tgtVertex == null) {
+            return;
+        }
+        Iterator<Edge> edges = srcVertex.edges(Direction.OUT, label);
+        while (edges.hasNext()) {
+            if (edges.next().inVertex().equals(tgtVertex)) {
+                return;
+            }
+        }
+        srcVertex.addEdge(label, tgtVertex);
     }
 
     public List<EdgeTuple> retrieveEdgesByProps(Map<String, Object> props) {
@@ -117,7 +137,11 @@ public class GremlinLineageGraph implements LineageGraph {
     }
 
     public List<EdgeTuple> retrieveEdgesByVertex(Object object) {
-        return retrieveEdges(g.V().hasId(object.hashCode()).bothE());
+        long id = registry.idOf(object);
+        if (id == VertexIdRegistry.ABSENT) {
+            return new ArrayList<>();
+        }
+        return retrieveEdges(g.V(id).bothE());
     }
 
     private List<EdgeTuple> retrieveEdges(GraphTraversal<? extends Element, Edge> edgeStep) {
@@ -133,41 +157,60 @@ public class GremlinLineageGraph implements LineageGraph {
                 .where(P.eq("src")).inE().where(P.eq("e")).drop().iterate();
     }
 
+    public int vertexCount() {
+        return g.V().count().next().intValue();
+    }
+
+    public int edgeCount() {
+        return g.E().count().next().intValue();
+    }
+
     public GremlinLineageGraph getSubGraph(String label) {
         return new GremlinLineageGraph((Graph) g.E().where(__.inV().hasLabel(label)).where(__.outV().hasLabel(label))
-                .subgraph("sg").cap("sg").next());
+                .subgraph("sg").cap("sg").next(), registry.copy());
     }
 
     public void merge(LineageGraph other) {
         GremlinLineageGraph graph = (GremlinLineageGraph) other;
-        for (Object vertex : other.retrieveVerticesByProps(Collections.emptyMap())) {
-            addVertexIfNotExist(vertex);
+        Iterator<Vertex> vertices = graph.graph.vertices();
+        while (vertices.hasNext()) {
+            Vertex vertex = vertices.next();
+            Map<String, Object> props = new HashMap<>();
+            vertex.properties().forEachRemaining(p -> props.put(p.key(), p.value()));
+            addVertexIfNotExist(props.remove("obj"), props);
         }
-        for (Property<Object> p : graph.g.V().properties().toList()) {
-            if (!p.key().equals("obj")) {
-                g.V().hasId(p.element().id()).property(p.key(), p.value()).iterate();
-            }
-        }
-        for (EdgeTuple edgeTuple : other.retrieveEdgesByProps(Collections.emptyMap())) {
-            addEdgeIfNotExist(edgeTuple.label(), edgeTuple.source(), edgeTuple.target());
+        Iterator<Edge> edges = graph.graph.edges();
+        while (edges.hasNext()) {
+            Edge edge = edges.next();
+            addEdgeIfNotExist(edge.label(), edge.outVertex().value("obj"), edge.inVertex().value("obj"));
         }
     }
 
     public List<List<Object>> listPath(Object source, Object target) {
-        List<List<Object>> result = new ArrayList<>();
-        for (Path path : g.V().hasLabel(source.getClass().getSimpleName()).hasId(source.hashCode())
-                .repeat(__.out().simplePath())
-                .until(__.hasLabel(target.getClass().getSimpleName()).hasId(target.hashCode()))
-                .path().toList()) {
-            List<Object> singlePath = new ArrayList<>();
-            for (Object x : path) {
-                if (x instanceof Vertex) {
-                    Vertex v = (Vertex) x;
-                    singlePath.add(g.V().hasId(v.id()).values("obj").toList().get(0));
-                }
-            }
-            result.add(singlePath);
+        return listPaths(Collections.singleton(source), Collections.singleton(target));
+    }
+
+    public List<List<Object>> listPaths(Collection<?> sources, Collection<?> targets) {
+        return pathFinder().listPaths(sources, targets);
+    }
+
+    public Map<Object, Set<Object>> listReachableTargets(Collection<?> sources, Collection<?> targets) {
+        return pathFinder().listReachableTargets(sources, targets);
+    }
+
+    private PathFinder pathFinder() {
+        // snapshot the adjacency once, rather than running one traversal per source/target pair
+        Map<Object, List<Object>> successors = new HashMap<>();
+        Map<Object, List<Object>> predecessors = new HashMap<>();
+        Iterator<Edge> edges = graph.edges();
+        while (edges.hasNext()) {
+            Edge edge = edges.next();
+            Object source = registry.objectOf((Long) edge.outVertex().id());
+            Object target = registry.objectOf((Long) edge.inVertex().id());
+            successors.computeIfAbsent(source, k -> new ArrayList<>()).add(target);
+            predecessors.computeIfAbsent(target, k -> new ArrayList<>()).add(source);
         }
-        return result;
+        return new PathFinder(obj -> successors.getOrDefault(obj, Collections.emptyList()),
+                obj -> predecessors.getOrDefault(obj, Collections.emptyList()));
     }
 }
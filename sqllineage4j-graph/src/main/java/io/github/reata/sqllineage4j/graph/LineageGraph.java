@@ -2,8 +2,10 @@ package io.github.reata.sqllineage4j.graph;
 
 import io.github.reata.sqllineage4j.common.entity.EdgeTuple;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public interface LineageGraph {
 
@@ -37,9 +39,17 @@ public interface LineageGraph {
 
     void dropSelfLoopEdge();
 
+    int vertexCount();
+
+    int edgeCount();
+
     LineageGraph getSubGraph(String label);
 
     void merge(LineageGraph other);
 
     List<List<Object>> listPath(Object source, Object target);
+
+    List<List<Object>> listPaths(Collection<?> sources, Collection<?> targets);
+
+    Map<Object, Set<Object>> listReachableTargets(Collection<?> sources, Collection<?> targets);
 }
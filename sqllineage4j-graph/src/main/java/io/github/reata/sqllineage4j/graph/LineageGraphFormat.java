@@ -0,0 +1,44 @@
+package io.github.reata.sqllineage4j.graph;
+
+import io.github.reata.sqllineage4j.common.constant.NodeTag;
+
+/**
+ * Constants shared by {@link LineageGraphWriter} and {@link LineageGraphReader}.
+ * <p>
+ * A stream starts with {@link #MAGIC} and {@link #VERSION}, followed by vertex and edge records, and ends with
+ * {@link #END}. Integers are unsigned varints, seven bits per byte, low bits first. Vertices are numbered in the order
+ * they are written, and edges refer to them by number. Subqueries are stored as the fingerprint and length of their
+ * text, as 8 bytes high bits first and a varint, without the text itself. Strings are written in full on first use only, and refer
+ * to that first use afterwards, so each table, column or label name is stored once per stream.
+ */
+final class LineageGraphFormat {
+    static final int MAGIC = 0x534c3447;
+    static final int VERSION = 3;
+
+    static final int END = 0;
+    static final int VERTEX = 1;
+    static final int EDGE = 2;
+
+    static final int NULL = 0;
+    static final int STRING = 1;
+    static final int TABLE = 2;
+    static final int SUBQUERY = 3;
+    static final int COLUMN = 4;
+
+    /**
+     * String reference for null, followed by a string written in full, and the first of the references to strings
+     * written before.
+     */
+    static final int NULL_STRING = 0;
+    static final int NEW_STRING = 1;
+    static final int STRING_REF = 2;
+
+    /**
+     * Vertex tags, each set to true on a vertex is one bit of its tag bitset.
+     */
+    static final String[] TAGS = {NodeTag.READ, NodeTag.WRITE, NodeTag.CTE, NodeTag.DROP,
+            NodeTag.SOURCE_ONLY, NodeTag.TARGET_ONLY, NodeTag.SELFLOOP};
+
+    private LineageGraphFormat() {
+    }
+}
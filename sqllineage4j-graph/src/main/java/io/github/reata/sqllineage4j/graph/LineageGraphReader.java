@@ -0,0 +1,183 @@
+package io.github.reata.sqllineage4j.graph;
+
+import io.github.reata.sqllineage4j.common.model.Column;
+import io.github.reata.sqllineage4j.common.model.QuerySet;
+import io.github.reata.sqllineage4j.common.model.Schema;
+import io.github.reata.sqllineage4j.common.model.SubQuery;
+import io.github.reata.sqllineage4j.common.model.Table;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static io.github.reata.sqllineage4j.graph.LineageGraphFormat.*;
+
+/**
+ * Reads lineage graphs written by {@link LineageGraphWriter}, adding each record to the target graph as soon as
+ * it has been read. Closing the reader closes the underlying input stream.
+ * <p>
+ * Malformed input, whether truncated or corrupted, fails with an {@link IOException}, and never allocates more than
+ * the input actually holds.
+ *
+ * @see LineageGraphFormat
+ */
+public class LineageGraphReader implements Closeable {
+    private final InputStream in;
+    private final List<Object> vertices = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+
+    public LineageGraphReader(InputStream in) throws IOException {
+        this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in);
+        if (new DataInputStream(this.in).readInt() != MAGIC) {
+            throw new IOException("not a lineage graph");
+        }
+        int version = readVarInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported lineage graph version " + version);
+        }
+    }
+
+    public LineageGraph read(LineageGraphType graphType) throws IOException {
+        LineageGraph graph = graphType.newGraph();
+        readInto(graph);
+        return graph;
+    }
+
+    /**
+     * Add all vertices and edges up to the end of the stream to the given graph, which need not be empty.
+     */
+    public void readInto(LineageGraph graph) throws IOException {
+        while (true) {
+            int record = readVarInt();
+            switch (record) {
+                case END:
+                    return;
+                case VERTEX:
+                    Object vertex = readObject();
+                    if (vertex == null) {
+                        throw new IOException("null vertex");
+                    }
+                    int tags = readVarInt();
+                    Map<String, Object> props = new HashMap<>();
+                    for (int i = 0; i < TAGS.length; i++) {
+                        if ((tags & (1 << i)) != 0) {
+                            props.put(TAGS[i], Boolean.TRUE);
+                        }
+                    }
+                    vertices.add(vertex);
+                    graph.addVertexIfNotExist(vertex, props);
+                    break;
+                case EDGE:
+                    Object source = vertex(readVarInt());
+                    String label = readName();
+                    Object target = vertex(readVarInt());
+                    graph.addEdgeIfNotExist(label, source, target);
+                    break;
+                default:
+                    throw new IOException("unknown record type " + record);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Object vertex(int id) throws IOException {
+        if (id < 0 || id >= vertices.size()) {
+            throw new IOException("edge refers to unknown vertex " + id);
+        }
+        return vertices.get(id);
+    }
+
+    private Object readObject() throws IOException {
+        int type = readVarInt();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString();
+            case TABLE:
+                Schema schema = new Schema(readName());
+                String name = readName();
+                return new Table(schema, name, readString());
+            case SUBQUERY:
+                long fingerprint = readLong();
+                int length = readVarInt();
+                if (length < 0) {
+                    throw new IOException("negative subquery length " + length);
+                }
+                return new SubQuery(fingerprint, length, null, readString());
+            case COLUMN:
+                Column column = new Column(readName());
+                Object parent = readObject();
+                if (parent instanceof QuerySet) {
+                    column.setParent((QuerySet) parent);
+                } else if (parent != null) {
+                    throw new IOException("column parent is not a table or subquery: " + parent.getClass().getSimpleName());
+                }
+                return column;
+            default:
+                throw new IOException("unknown vertex type " + type);
+        }
+    }
+
+    private String readName() throws IOException {
+        String name = readString();
+        if (name == null) {
+            throw new IOException("null name");
+        }
+        return name;
+    }
+
+    private String readString() throws IOException {
+        int ref = readVarInt();
+        if (ref == NULL_STRING) {
+            return null;
+        } else if (ref == NEW_STRING) {
+            int length = readVarInt();
+            if (length < 0) {
+                throw new IOException("negative string length " + length);
+            }
+            // grows with the bytes actually read, so a corrupted length cannot allocate more than the input holds
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                throw new EOFException();
+            }
+            String s = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(s);
+            return s;
+        } else if (ref >= STRING_REF && ref - STRING_REF < strings.size()) {
+            return strings.get(ref - STRING_REF);
+        }
+        throw new IOException("unknown string " + (ref - STRING_REF));
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7f) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    private long readLong() throws IOException {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value = value << 8 | b;
+        }
+        return value;
+    }
+}
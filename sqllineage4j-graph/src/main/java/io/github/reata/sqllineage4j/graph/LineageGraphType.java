@@ -0,0 +1,19 @@
+package io.github.reata.sqllineage4j.graph;
+
+import java.util.function.Supplier;
+
+public enum LineageGraphType {
+    GREMLIN(GremlinLineageGraph::new),
+
+    NATIVE(NativeLineageGraph::new);
+
+    private final Supplier<LineageGraph> factory;
+
+    LineageGraphType(Supplier<LineageGraph> factory) {
+        this.factory = factory;
+    }
+
+    public LineageGraph newGraph() {
+        return factory.get();
+    }
+}
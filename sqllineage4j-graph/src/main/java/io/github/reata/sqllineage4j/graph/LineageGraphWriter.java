@@ -0,0 +1,156 @@
+package io.github.reata.sqllineage4j.graph;
+
+import io.github.reata.sqllineage4j.common.entity.EdgeTuple;
+import io.github.reata.sqllineage4j.common.model.Column;
+import io.github.reata.sqllineage4j.common.model.SubQuery;
+import io.github.reata.sqllineage4j.common.model.Table;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static io.github.reata.sqllineage4j.graph.LineageGraphFormat.*;
+
+/**
+ * Writes lineage graphs in a compact binary form, record by record, so that neither the graph nor its encoding
+ * has to be held in memory twice. Read back with {@link LineageGraphReader}.
+ * <p>
+ * Vertices can be strings, tables, subqueries and columns. Of their properties, only the tags in
+ * {@link io.github.reata.sqllineage4j.common.constant.NodeTag} set to true are kept.
+ * Closing the writer ends the stream and closes the underlying output stream.
+ *
+ * @see LineageGraphFormat
+ */
+public class LineageGraphWriter implements Closeable {
+    private final OutputStream out;
+    private final Map<Object, Integer> vertexIds = new HashMap<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+
+    public LineageGraphWriter(OutputStream out) throws IOException {
+        this.out = out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out);
+        new DataOutputStream(this.out).writeInt(MAGIC);
+        writeVarInt(VERSION);
+    }
+
+    /**
+     * Write all vertices of the graph, then all its edges.
+     */
+    public void write(LineageGraph graph) throws IOException {
+        Map<Object, Integer> tags = new HashMap<>();
+        for (int i = 0; i < TAGS.length; i++) {
+            for (Object vertex : graph.retrieveVerticesByProps(Collections.singletonMap(TAGS[i], true))) {
+                tags.merge(vertex, 1 << i, (a, b) -> a | b);
+            }
+        }
+        for (Object vertex : graph.retrieveVerticesByProps(Collections.emptyMap())) {
+            writeVertex(vertex, tags.getOrDefault(vertex, 0));
+        }
+        for (EdgeTuple edge : graph.retrieveEdgesByProps(Collections.emptyMap())) {
+            writeEdge(edge.label(), edge.source(), edge.target());
+        }
+    }
+
+    public void writeVertex(Object vertex, Map<String, Object> props) throws IOException {
+        int tags = 0;
+        for (int i = 0; i < TAGS.length; i++) {
+            if (Boolean.TRUE.equals(props.get(TAGS[i]))) {
+                tags |= 1 << i;
+            }
+        }
+        writeVertex(vertex, tags);
+    }
+
+    private void writeVertex(Object vertex, int tags) throws IOException {
+        if (vertexIds.containsKey(vertex)) {
+            throw new IllegalArgumentException("vertex " + vertex + " already written");
+        }
+        vertexIds.put(vertex, vertexIds.size());
+        writeVarInt(VERTEX);
+        writeObject(vertex);
+        writeVarInt(tags);
+    }
+
+    /**
+     * Both ends have to be written as vertices first.
+     */
+    public void writeEdge(String label, Object source, Object target) throws IOException {
+        writeVarInt(EDGE);
+        writeVarInt(vertexId(source));
+        writeString(label);
+        writeVarInt(vertexId(target));
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeVarInt(END);
+        out.close();
+    }
+
+    private int vertexId(Object vertex) {
+        Integer id = vertexIds.get(vertex);
+        if (id == null) {
+            throw new IllegalArgumentException("vertex " + vertex + " not written yet");
+        }
+        return id;
+    }
+
+    private void writeObject(Object obj) throws IOException {
+        if (obj == null) {
+            writeVarInt(NULL);
+        } else if (obj instanceof String) {
+            writeVarInt(STRING);
+            writeString((String) obj);
+        } else if (obj instanceof Table) {
+            Table table = (Table) obj;
+            writeVarInt(TABLE);
+            writeString(table.getSchema().getRawName());
+            writeString(table.getRawName());
+            writeString(table.getAlias());
+        } else if (obj instanceof SubQuery) {
+            SubQuery subQuery = (SubQuery) obj;
+            writeVarInt(SUBQUERY);
+            writeLong(subQuery.getFingerprint());
+            writeVarInt(subQuery.getLength());
+            writeString(subQuery.getAlias());
+        } else if (obj instanceof Column) {
+            Column column = (Column) obj;
+            writeVarInt(COLUMN);
+            writeString(column.getRawName());
+            // a column with several candidate parents compares and prints as one without parent
+            writeObject(column.getParent());
+        } else {
+            throw new IllegalArgumentException("unsupported vertex type " + obj.getClass().getName());
+        }
+    }
+
+    private void writeString(String s) throws IOException {
+        if (s == null) {
+            writeVarInt(NULL_STRING);
+            return;
+        }
+        Integer id = stringIds.get(s);
+        if (id != null) {
+            writeVarInt(STRING_REF + id);
+            return;
+        }
+        stringIds.put(s, stringIds.size());
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(NEW_STRING);
+        writeVarInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private void writeLong(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package io.github.reata.sqllineage4j.graph;
+
+import io.github.reata.sqllineage4j.common.entity.EdgeTuple;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A {@link LineageGraph} backed by plain hash-indexed adjacency lists.
+ * Vertices are keyed by object equality, and both vertices and edges are additionally indexed by label,
+ * so that none of the operations need to compile or run a traversal.
+ */
+public class NativeLineageGraph implements LineageGraph {
+    private final Map<Object, Vertex> vertices = new LinkedHashMap<>();
+    private final Map<String, Set<Vertex>> verticesByLabel = new HashMap<>();
+    private final Map<String, Set<Edge>> edgesByLabel = new LinkedHashMap<>();
+
+    public void addVertexIfNotExist(Object obj) {
+        addVertexIfNotExist(obj, Collections.emptyMap());
+    }
+
+    public void addVertexIfNotExist(Object obj, Map<String, Object> props) {
+        Vertex vertex = vertices.get(obj);
+        if (vertex == null) {
+            vertex = new Vertex(obj);
+            vertices.put(obj, vertex);
+            verticesByLabel.computeIfAbsent(vertex.label, k -> new LinkedHashSet<>()).add(vertex);
+        } else {
+            vertex.obj = obj;
+        }
+        vertex.props.putAll(props);
+    }
+
+    public List<Object> retrieveVerticesByProps(Map<String, Object> props) {
+        List<Object> result = new ArrayList<>();
+        for (Vertex vertex : vertices.values()) {
+            if (vertex.hasProps(props)) {
+                result.add(vertex.obj);
+            }
+        }
+        return result;
+    }
+
+    public List<Object> retrieveSourceOnlyVertices() {
+        List<Object> result = new ArrayList<>();
+        for (Vertex vertex : vertices.values()) {
+            if (!vertex.outEdges.isEmpty() && vertex.inEdges.isEmpty()) {
+                result.add(vertex.obj);
+            }
+        }
+        return result;
+    }
+
+    public List<Object> retrieveTargetOnlyVertices() {
+        List<Object> result = new ArrayList<>();
+        for (Vertex vertex : vertices.values()) {
+            if (!vertex.inEdges.isEmpty() && vertex.outEdges.isEmpty()) {
+                result.add(vertex.obj);
+            }
+        }
+        return result;
+    }
+
+    public List<Object> retrieveConnectedVertices() {
+        List<Object> result = new ArrayList<>();
+        for (Vertex vertex : vertices.values()) {
+            if (!vertex.inEdges.isEmpty() && !vertex.outEdges.isEmpty()) {
+                result.add(vertex.obj);
+            }
+        }
+        return result;
+    }
+
+    public List<Object> retrieveSelfLoopVertices() {
+        List<Object> result = new ArrayList<>();
+        for (Vertex vertex : vertices.values()) {
+            for (Edge edge : vertex.outEdges) {
+                if (edge.isSelfLoop()) {
+                    result.add(vertex.obj);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    public void updateVertices(Map<String, Object> props, Object... objects) {
+        for (Object obj : objects) {
+            Vertex vertex = vertices.get(obj);
+            if (vertex != null) {
+                vertex.props.putAll(props);
+            }
+        }
+    }
+
+    public void dropVertices(Object... objects) {
+        dropVertices(false, objects);
+    }
+
+    public void dropVerticesIfOrphan(Object... objects) {
+        dropVertices(true, objects);
+    }
+
+    private void dropVertices(boolean orphan, Object... objects) {
+        for (Object obj : objects) {
+            Vertex vertex = vertices.get(obj);
+            if (vertex == null || (orphan && !(vertex.outEdges.isEmpty() && vertex.inEdges.isEmpty()))) {
+                continue;
+            }
+            for (Edge edge : new ArrayList<>(vertex.outEdges)) {
+                removeEdge(edge);
+            }
+            for (Edge edge : new ArrayList<>(vertex.inEdges)) {
+                removeEdge(edge);
+            }
+            vertices.remove(obj);
+            verticesByLabel.get(vertex.label).remove(vertex);
+        }
+    }
+
+    public void addEdgeIfNotExist(String label, Object src, Object tgt) {
+        Vertex srcVertex = vertices.get(src);
+        Vertex tgtVertex = vertices.get(tgt);
+        if (srcVertex == null || tgtVertex == null) {
+            return;
+        }
+        Edge edge = new Edge(label, srcVertex, tgtVertex);
+        if (edgesByLabel.computeIfAbsent(label, k -> new LinkedHashSet<>()).add(edge)) {
+            srcVertex.outEdges.add(edge);
+            tgtVertex.inEdges.add(edge);
+        }
+    }
+
+    private void removeEdge(Edge edge) {
+        edge.src.outEdges.remove(edge);
+        edge.tgt.inEdges.remove(edge);
+        edgesByLabel.get(edge.label).remove(edge);
+    }
+
+    public List<EdgeTuple> retrieveEdgesByProps(Map<String, Object> props) {
+        // edges carry no properties other than their label
+        if (!props.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return edgesByLabel.values().stream().flatMap(Set::stream).map(Edge::toTuple).collect(Collectors.toList());
+    }
+
+    public List<EdgeTuple> retrieveEdgesByLabel(String label) {
+        return edgesByLabel.getOrDefault(label, Collections.emptySet()).stream().map(Edge::toTuple).collect(Collectors.toList());
+    }
+
+    public List<EdgeTuple> retrieveEdgesByVertex(Object object) {
+        List<EdgeTuple> result = new ArrayList<>();
+        Vertex vertex = vertices.get(object);
+        if (vertex != null) {
+            vertex.outEdges.forEach(e -> result.add(e.toTuple()));
+            vertex.inEdges.forEach(e -> result.add(e.toTuple()));
+        }
+        return result;
+    }
+
+    public void dropSelfLoopEdge() {
+        List<Edge> selfLoops = edgesByLabel.values().stream().flatMap(Set::stream).filter(Edge::isSelfLoop).collect(Collectors.toList());
+        selfLoops.forEach(this::removeEdge);
+    }
+
+    public int vertexCount() {
+        return vertices.size();
+    }
+
+    public int edgeCount() {
+        return edgesByLabel.values().stream().mapToInt(Set::size).sum();
+    }
+
+    public NativeLineageGraph getSubGraph(String label) {
+        NativeLineageGraph subGraph = new NativeLineageGraph();
+        for (Vertex vertex : verticesByLabel.getOrDefault(label, Collections.emptySet())) {
+            for (Edge edge : vertex.outEdges) {
+                if (edge.tgt.label.equals(label)) {
+                    subGraph.addVertexIfNotExist(edge.src.obj, edge.src.props);
+                    subGraph.addVertexIfNotExist(edge.tgt.obj, edge.tgt.props);
+                    subGraph.addEdgeIfNotExist(edge.label, edge.src.obj, edge.tgt.obj);
+                }
+            }
+        }
+        return subGraph;
+    }
+
+    public void merge(LineageGraph other) {
+        NativeLineageGraph graph = (NativeLineageGraph) other;
+        for (Vertex vertex : graph.vertices.values()) {
+            addVertexIfNotExist(vertex.obj, vertex.props);
+        }
+        for (Set<Edge> edges : graph.edgesByLabel.values()) {
+            for (Edge edge : edges) {
+                addEdgeIfNotExist(edge.label, edge.src.obj, edge.tgt.obj);
+            }
+        }
+    }
+
+    public List<List<Object>> listPath(Object source, Object target) {
+        return listPaths(Collections.singleton(source), Collections.singleton(target));
+    }
+
+    public List<List<Object>> listPaths(Collection<?> sources, Collection<?> targets) {
+        return pathFinder().listPaths(sources, targets);
+    }
+
+    public Map<Object, Set<Object>> listReachableTargets(Collection<?> sources, Collection<?> targets) {
+        return pathFinder().listReachableTargets(sources, targets);
+    }
+
+    private PathFinder pathFinder() {
+        return new PathFinder(
+                obj -> neighbours(obj, vertex -> vertex.outEdges, edge -> edge.tgt),
+                obj -> neighbours(obj, vertex -> vertex.inEdges, edge -> edge.src));
+    }
+
+    private List<Object> neighbours(Object obj, Function<Vertex, Set<Edge>> edges, Function<Edge, Vertex> otherEnd) {
+        Vertex vertex = vertices.get(obj);
+        if (vertex == null) {
+            return Collections.emptyList();
+        }
+        List<Object> result = new ArrayList<>();
+        for (Edge edge : edges.apply(vertex)) {
+            result.add(otherEnd.apply(edge).obj);
+        }
+        return result;
+    }
+
+    private static final class Vertex {
+        private Object obj;
+        private final String label;
+        private final Map<String, Object> props = new HashMap<>();
+        private final Set<Edge> outEdges = new LinkedHashSet<>();
+        private final Set<Edge> inEdges = new LinkedHashSet<>();
+
+        private Vertex(Object obj) {
+            this.obj = obj;
+            this.label = obj.getClass().getSimpleName();
+        }
+
+        private boolean hasProps(Map<String, Object> props) {
+            for (Map.Entry<String, Object> entry : props.entrySet()) {
+                if (!entry.getValue().equals(this.props.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Edge {
+        private final String label;
+        private final Vertex src;
+        private final Vertex tgt;
+
+        private Edge(String label, Vertex src, Vertex tgt) {
+            this.label = label;
+            this.src = src;
+            this.tgt = tgt;
+        }
+
+        private boolean isSelfLoop() {
+            return src == tgt;
+        }
+
+        private EdgeTuple toTuple() {
+            return EdgeTuple.create(src.obj, label, tgt.obj);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Edge)) {
+                return false;
+            }
+            Edge other = (Edge) obj;
+            return label.equals(other.label) && src == other.src && tgt == other.tgt;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(label, src, tgt);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package io.github.reata.sqllineage4j.graph;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Multi-source, multi-target path search shared by the {@link LineageGraph} implementations.
+ * Instead of searching every source/target pair from scratch, vertices that cannot reach any target are pruned once
+ * with a single reverse sweep, and endpoint reachability is memoized per strongly connected component.
+ */
+final class PathFinder {
+    private final Function<Object, ? extends Iterable<Object>> successors;
+    private final Function<Object, ? extends Iterable<Object>> predecessors;
+
+    PathFinder(Function<Object, ? extends Iterable<Object>> successors,
+               Function<Object, ? extends Iterable<Object>> predecessors) {
+        this.successors = successors;
+        this.predecessors = predecessors;
+    }
+
+    /**
+     * Every simple path starting from one of the sources and ending at one of the targets.
+     */
+    List<List<Object>> listPaths(Collection<?> sources, Collection<?> targets) {
+        Set<Object> targetSet = new HashSet<>(targets);
+        Set<Object> reaching = reachingVertices(targetSet);
+        List<List<Object>> result = new ArrayList<>();
+        for (Object source : new LinkedHashSet<>(sources)) {
+            if (reaching.contains(source)) {
+                List<Object> path = new ArrayList<>();
+                Set<Object> onPath = new HashSet<>();
+                path.add(source);
+                onPath.add(source);
+                listPaths(path, onPath, reaching, targetSet, result);
+            }
+        }
+        return result;
+    }
+
+    private void listPaths(List<Object> path, Set<Object> onPath, Set<Object> reaching, Set<Object> targets,
+                           List<List<Object>> result) {
+        for (Object next : successors.apply(path.get(path.size() - 1))) {
+            if (!reaching.contains(next) || onPath.contains(next)) {
+                continue;
+            }
+            path.add(next);
+            onPath.add(next);
+            if (targets.contains(next)) {
+                result.add(new ArrayList<>(path));
+            }
+            listPaths(path, onPath, reaching, targets, result);
+            onPath.remove(next);
+            path.remove(path.size() - 1);
+        }
+    }
+
+    /**
+     * For each source, the targets reachable from it, without materializing any path.
+     * Sources that reach no target are left out.
+     */
+    Map<Object, Set<Object>> listReachableTargets(Collection<?> sources, Collection<?> targets) {
+        // number every vertex reachable from the sources
+        List<Object> vertices = new ArrayList<>();
+        Map<Object, Integer> ids = new HashMap<>();
+        Deque<Object> queue = new ArrayDeque<>();
+        for (Object source : sources) {
+            if (!ids.containsKey(source)) {
+                ids.put(source, vertices.size());
+                vertices.add(source);
+                queue.add(source);
+            }
+        }
+        while (!queue.isEmpty()) {
+            for (Object next : successors.apply(queue.poll())) {
+                if (!ids.containsKey(next)) {
+                    ids.put(next, vertices.size());
+                    vertices.add(next);
+                    queue.add(next);
+                }
+            }
+        }
+        int n = vertices.size();
+        int[][] adjacency = new int[n][];
+        for (int i = 0; i < n; i++) {
+            List<Integer> out = new ArrayList<>();
+            successors.apply(vertices.get(i)).forEach(next -> out.add(ids.get(next)));
+            adjacency[i] = out.stream().mapToInt(Integer::intValue).toArray();
+        }
+        int[] targetBit = new int[n];
+        Arrays.fill(targetBit, -1);
+        List<Object> targetList = new ArrayList<>();
+        for (Object target : new LinkedHashSet<>(targets)) {
+            Integer id = ids.get(target);
+            if (id != null) {
+                targetBit[id] = targetList.size();
+                targetList.add(target);
+            }
+        }
+
+        // Tarjan's algorithm, iteratively. Components complete in reverse topological order, so the targets
+        // reachable from every successor component are known by the time a component is closed.
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] component = new int[n];
+        int[] edgePos = new int[n];
+        boolean[] onStack = new boolean[n];
+        Arrays.fill(index, -1);
+        int[] stack = new int[n];
+        int stackSize = 0;
+        int[] callStack = new int[n];
+        int callSize = 0;
+        int counter = 0;
+        List<BitSet> componentReach = new ArrayList<>();
+        for (int root = 0; root < n; root++) {
+            if (index[root] != -1) {
+                continue;
+            }
+            index[root] = low[root] = counter++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            callStack[callSize++] = root;
+            while (callSize > 0) {
+                int v = callStack[callSize - 1];
+                if (edgePos[v] < adjacency[v].length) {
+                    int w = adjacency[v][edgePos[v]++];
+                    if (index[w] == -1) {
+                        index[w] = low[w] = counter++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        callStack[callSize++] = w;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                callSize--;
+                if (callSize > 0) {
+                    int parent = callStack[callSize - 1];
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] == index[v]) {
+                    int componentId = componentReach.size();
+                    BitSet reach = new BitSet();
+                    List<Integer> members = new ArrayList<>();
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        component[w] = componentId;
+                        members.add(w);
+                    } while (w != v);
+                    for (int member : members) {
+                        if (targetBit[member] != -1) {
+                            reach.set(targetBit[member]);
+                        }
+                        for (int next : adjacency[member]) {
+                            if (component[next] != componentId) {
+                                reach.or(componentReach.get(component[next]));
+                            }
+                        }
+                    }
+                    componentReach.add(reach);
+                }
+            }
+        }
+
+        Map<Object, Set<Object>> result = new LinkedHashMap<>();
+        for (Object source : sources) {
+            BitSet reach = componentReach.get(component[ids.get(source)]);
+            Set<Object> reachable = new LinkedHashSet<>();
+            for (int bit = reach.nextSetBit(0); bit >= 0; bit = reach.nextSetBit(bit + 1)) {
+                Object target = targetList.get(bit);
+                if (!target.equals(source)) {
+                    reachable.add(target);
+                }
+            }
+            if (!reachable.isEmpty()) {
+                result.put(source, reachable);
+            }
+        }
+        return result;
+    }
+
+    private Set<Object> reachingVertices(Set<Object> targets) {
+        Set<Object> reaching = new HashSet<>(targets);
+        Deque<Object> queue = new ArrayDeque<>(targets);
+        while (!queue.isEmpty()) {
+            for (Object previous : predecessors.apply(queue.poll())) {
+                if (reaching.add(previous)) {
+                    queue.add(previous);
+                }
+            }
+        }
+        return reaching;
+    }
+}
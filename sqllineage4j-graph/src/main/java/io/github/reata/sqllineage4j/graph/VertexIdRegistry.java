@@ -0,0 +1,85 @@
+package io.github.reata.sqllineage4j.graph;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns vertex objects into dense long ids.
+ * Identity is decided by {@link Object#equals(Object)}, so two distinct objects never share an id
+ * even when their hash codes collide. Ids of dropped vertices are released and handed out again,
+ * so that a long-lived graph only holds on to the objects it still contains.
+ */
+final class VertexIdRegistry {
+    static final long ABSENT = -1L;
+
+    private final Map<Object, Long> ids;
+    private Object[] objects;
+    private int size;
+    private int[] free;
+    private int freeCount;
+
+    VertexIdRegistry() {
+        this(new HashMap<>(), new Object[64], 0, new int[16], 0);
+    }
+
+    private VertexIdRegistry(Map<Object, Long> ids, Object[] objects, int size, int[] free, int freeCount) {
+        this.ids = ids;
+        this.objects = objects;
+        this.size = size;
+        this.free = free;
+        this.freeCount = freeCount;
+    }
+
+    long intern(Object obj) {
+        Long id = ids.get(obj);
+        if (id == null) {
+            if (freeCount > 0) {
+                id = (long) free[--freeCount];
+            } else {
+                if (size == objects.length) {
+                    objects = Arrays.copyOf(objects, size * 2);
+                }
+                id = (long) size++;
+            }
+            ids.put(obj, id);
+        }
+        // equal objects may still differ, e.g. a table under another alias, the latest one is the vertex object
+        objects[id.intValue()] = obj;
+        return id;
+    }
+
+    long idOf(Object obj) {
+        Long id = ids.get(obj);
+        return id == null ? ABSENT : id;
+    }
+
+    Object objectOf(long id) {
+        return objects[(int) id];
+    }
+
+    /**
+     * Release the id of a dropped vertex, to be reused by the next object interned.
+     */
+    void release(Object obj) {
+        Long id = ids.remove(obj);
+        if (id != null) {
+            objects[id.intValue()] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = id.intValue();
+        }
+    }
+
+    /**
+     * Independent copy, for a graph whose vertices must keep their ids while this registry moves on.
+     */
+    VertexIdRegistry copy() {
+        return new VertexIdRegistry(new HashMap<>(ids), objects.clone(), size, free.clone(), freeCount);
+    }
+
+    int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,231 @@
+package io.github.reata.sqllineage4j.graph;
+
+import io.github.reata.sqllineage4j.common.constant.EdgeType;
+import io.github.reata.sqllineage4j.common.constant.NodeTag;
+import io.github.reata.sqllineage4j.common.model.Column;
+import io.github.reata.sqllineage4j.common.model.SubQuery;
+import io.github.reata.sqllineage4j.common.model.Table;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+public class LineageGraphTest {
+
+    private LineageGraph buildGraph(LineageGraphType graphType) {
+        // a -> b -> c -> d, b -> d, c -> b (cycle), e -> f
+        LineageGraph graph = graphType.newGraph();
+        for (String v : List.of("a", "b", "c", "d", "e", "f")) {
+            graph.addVertexIfNotExist(v);
+        }
+        graph.addEdgeIfNotExist(EdgeType.LINEAGE, "a", "b");
+        graph.addEdgeIfNotExist(EdgeType.LINEAGE, "b", "c");
+        graph.addEdgeIfNotExist(EdgeType.LINEAGE, "c", "d");
+        graph.addEdgeIfNotExist(EdgeType.LINEAGE, "b", "d");
+        graph.addEdgeIfNotExist(EdgeType.LINEAGE, "c", "b");
+        graph.addEdgeIfNotExist(EdgeType.LINEAGE, "e", "f");
+        return graph;
+    }
+
+    @Test
+    public void testListPath() {
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            LineageGraph graph = buildGraph(graphType);
+            assertEquals(Set.of(List.of("a", "b", "c", "d"), List.of("a", "b", "d")), Set.copyOf(graph.listPath("a", "d")));
+            assertEquals(List.of(), graph.listPath("a", "f"));
+            assertEquals(List.of(), graph.listPath("a", "nonexistent"));
+        }
+    }
+
+    @Test
+    public void testListPaths() {
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            LineageGraph graph = buildGraph(graphType);
+            assertEquals(Set.of(List.of("a", "b", "c", "d"), List.of("a", "b", "d"), List.of("e", "f")),
+                    Set.copyOf(graph.listPaths(List.of("a", "e"), List.of("d", "f"))));
+        }
+    }
+
+    @Test
+    public void testListReachableTargets() {
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            LineageGraph graph = buildGraph(graphType);
+            Map<Object, Set<Object>> expected = new HashMap<>();
+            expected.put("a", Set.of("b", "d"));
+            expected.put("c", Set.of("b", "d"));
+            expected.put("e", Set.of("f"));
+            assertEquals(expected, graph.listReachableTargets(List.of("a", "c", "e", "f"), List.of("b", "d", "f")));
+        }
+    }
+
+    @Test
+    public void testDropAndMerge() {
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            LineageGraph graph = buildGraph(graphType);
+            graph.dropVerticesIfOrphan("a");
+            assertEquals(6, graph.retrieveVerticesByProps(Collections.emptyMap()).size());
+            graph.dropVertices("a");
+            assertEquals(5, graph.retrieveVerticesByProps(Collections.emptyMap()).size());
+            assertEquals(5, graph.vertexCount());
+            assertEquals(5, graph.edgeCount());
+            assertEquals(Set.of("e"), Set.copyOf(graph.retrieveSourceOnlyVertices()));
+
+            LineageGraph other = graphType.newGraph();
+            other.addVertexIfNotExist("a", Collections.singletonMap("tag", true));
+            other.addVertexIfNotExist("b");
+            other.addEdgeIfNotExist(EdgeType.LINEAGE, "a", "b");
+            graph.merge(other);
+            assertEquals(List.of("a"), graph.retrieveVerticesByProps(Collections.singletonMap("tag", true)));
+            assertEquals(Set.of("a", "e"), Set.copyOf(graph.retrieveSourceOnlyVertices()));
+            assertEquals(6, graph.retrieveEdgesByProps(Collections.emptyMap()).size());
+            assertEquals(6, graph.vertexCount());
+            assertEquals(6, graph.edgeCount());
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            LineageGraph graph = graphType.newGraph();
+            Table source = new Table("db.tab1", "t");
+            Table target = new Table("tab2");
+            SubQuery subQuery = new SubQuery("select col1 from db.tab1", "sq");
+            Column sourceColumn = new Column("col1");
+            sourceColumn.setParent(source);
+            Column subQueryColumn = new Column("col1");
+            subQueryColumn.setParent(subQuery);
+            Column targetColumn = new Column("col1");
+            targetColumn.setParent(target);
+            graph.addVertexIfNotExist(source, Map.of(NodeTag.READ, true, NodeTag.SOURCE_ONLY, true));
+            graph.addVertexIfNotExist(target, Map.of(NodeTag.WRITE, true, NodeTag.SELFLOOP, false));
+            graph.addVertexIfNotExist(subQuery);
+            graph.addVertexIfNotExist("t");
+            for (Column column : List.of(sourceColumn, subQueryColumn, targetColumn)) {
+                graph.addVertexIfNotExist(column);
+                graph.addEdgeIfNotExist(EdgeType.HAS_COLUMN, column.getParent(), column);
+            }
+            graph.addEdgeIfNotExist(EdgeType.HAS_ALIAS, source, "t");
+            graph.addEdgeIfNotExist(EdgeType.LINEAGE, source, target);
+            graph.addEdgeIfNotExist(EdgeType.LINEAGE, sourceColumn, subQueryColumn);
+            graph.addEdgeIfNotExist(EdgeType.LINEAGE, subQueryColumn, targetColumn);
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (LineageGraphWriter writer = new LineageGraphWriter(out)) {
+                writer.write(graph);
+            }
+            LineageGraph copy;
+            try (LineageGraphReader reader = new LineageGraphReader(new ByteArrayInputStream(out.toByteArray()))) {
+                copy = reader.read(graphType);
+            }
+            assertEquals(Set.copyOf(graph.retrieveVerticesByProps(Collections.emptyMap())),
+                    Set.copyOf(copy.retrieveVerticesByProps(Collections.emptyMap())));
+            assertEquals(Set.copyOf(graph.retrieveEdgesByProps(Collections.emptyMap())),
+                    Set.copyOf(copy.retrieveEdgesByProps(Collections.emptyMap())));
+            assertEquals(List.of(source), copy.retrieveVerticesByProps(Map.of(NodeTag.READ, true, NodeTag.SOURCE_ONLY, true)));
+            assertEquals(List.of(target), copy.retrieveVerticesByProps(Collections.singletonMap(NodeTag.WRITE, true)));
+            assertEquals(List.of(), copy.retrieveVerticesByProps(Collections.singletonMap(NodeTag.SELFLOOP, true)));
+            Table copied = (Table) copy.retrieveVerticesByProps(Collections.singletonMap(NodeTag.READ, true)).get(0);
+            assertEquals("db..tab1", copied.toString());
+            assertEquals("t", copied.getAlias());
+        }
+    }
+
+    @Test
+    public void testCorruptedGraphStream() throws IOException {
+        // edge to vertex -1
+        assertMalformed(LineageGraphFormat.EDGE, 0xff, 0xff, 0xff, 0xff, 0x0f);
+        // string reference below the first string written
+        assertMalformed(LineageGraphFormat.VERTEX, LineageGraphFormat.STRING, 0xff, 0xff, 0xff, 0xff, 0x0f);
+        // string of 2^31 - 1 bytes, with only a few in the stream
+        assertMalformed(LineageGraphFormat.VERTEX, LineageGraphFormat.STRING, LineageGraphFormat.NEW_STRING,
+                0xff, 0xff, 0xff, 0xff, 0x07, 'a', 'b');
+        // column whose parent is a string
+        assertMalformed(LineageGraphFormat.VERTEX, LineageGraphFormat.COLUMN, LineageGraphFormat.NEW_STRING, 1, 'a',
+                LineageGraphFormat.STRING, LineageGraphFormat.STRING_REF, 0, LineageGraphFormat.END);
+        // table without name
+        assertMalformed(LineageGraphFormat.VERTEX, LineageGraphFormat.TABLE, LineageGraphFormat.NULL_STRING,
+                LineageGraphFormat.NULL_STRING, LineageGraphFormat.NULL_STRING, 0, LineageGraphFormat.END);
+
+        LineageGraph graph = LineageGraphType.NATIVE.newGraph();
+        Table table = new Table("db.tab1", "t");
+        Column column = new Column("col1");
+        column.setParent(new SubQuery("select col1 from db.tab1", "sq"));
+        graph.addVertexIfNotExist(table, Map.of(NodeTag.READ, true));
+        graph.addVertexIfNotExist(column);
+        graph.addEdgeIfNotExist(EdgeType.LINEAGE, table, column);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (LineageGraphWriter writer = new LineageGraphWriter(out)) {
+            writer.write(graph);
+        }
+        byte[] bytes = out.toByteArray();
+        // any truncation or any single corrupted byte either reads or fails with IOException
+        for (int i = 0; i < bytes.length; i++) {
+            assertReadsOrMalformed(Arrays.copyOf(bytes, i));
+            for (int b : new int[]{0x00, 0x7f, 0x80, 0xff, bytes[i] ^ 0x55}) {
+                byte[] corrupted = bytes.clone();
+                corrupted[i] = (byte) b;
+                assertReadsOrMalformed(corrupted);
+            }
+        }
+    }
+
+    private void assertMalformed(int... body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new DataOutputStream(out).writeInt(LineageGraphFormat.MAGIC);
+        out.write(LineageGraphFormat.VERSION);
+        for (int b : body) {
+            out.write(b);
+        }
+        try (LineageGraphReader reader = new LineageGraphReader(new ByteArrayInputStream(out.toByteArray()))) {
+            assertThrows(IOException.class, () -> reader.read(LineageGraphType.NATIVE));
+        }
+    }
+
+    private void assertReadsOrMalformed(byte[] bytes) {
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            try (LineageGraphReader reader = new LineageGraphReader(new ByteArrayInputStream(bytes))) {
+                reader.read(graphType);
+            } catch (IOException e) {
+                // expected for most corruptions
+            }
+        }
+    }
+
+    @Test
+    public void testVertexIdRegistry() {
+        VertexIdRegistry registry = new VertexIdRegistry();
+        long a = registry.intern("a");
+        registry.intern("b");
+        registry.release("a");
+        assertEquals(VertexIdRegistry.ABSENT, registry.idOf("a"));
+        assertEquals(1, registry.size());
+        // released ids are reused
+        assertEquals(a, registry.intern("c"));
+        assertEquals("c", registry.objectOf(a));
+    }
+
+    @Test
+    public void testReAddedVertexObject() {
+        for (LineageGraphType graphType : LineageGraphType.values()) {
+            LineageGraph graph = graphType.newGraph();
+            Table target = new Table("tab2", "old");
+            graph.addVertexIfNotExist("src");
+            graph.addVertexIfNotExist(target);
+            graph.addEdgeIfNotExist(EdgeType.LINEAGE, "src", target);
+            graph.dropVertices(target);
+            Table renamed = new Table("tab2", "new");
+            graph.addVertexIfNotExist(renamed);
+            graph.addEdgeIfNotExist(EdgeType.LINEAGE, "src", renamed);
+            List<List<Object>> paths = graph.listPath("src", renamed);
+            assertEquals(1, paths.size());
+            assertSame(renamed, paths.get(0).get(1));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.reata.sqllineage4j.parser;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * A {@link CharStream} reading straight from a {@link CharSequence}, where {@code CharStreams.fromString} would first
+ * copy the whole text into a code point buffer.
+ * <p>
+ * Positions are UTF-16 char indexes, so this only behaves like the ANTLR streams for text without surrogate pairs,
+ * see {@link #of}.
+ */
+public final class CharSequenceCharStream implements CharStream {
+    private final CharSequence text;
+    private int position = 0;
+
+    private CharSequenceCharStream(CharSequence text) {
+        this.text = text;
+    }
+
+    /**
+     * @return a stream over the given text without copying it, or a code point stream for text outside the BMP
+     */
+    public static CharStream of(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Character.isSurrogate(text.charAt(i))) {
+                return CharStreams.fromString(text);
+            }
+        }
+        return new CharSequenceCharStream(text);
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = Math.min(interval.a, text.length());
+        int length = Math.min(interval.b - interval.a + 1, text.length() - start);
+        return length <= 0 ? "" : text.subSequence(start, start + length).toString();
+    }
+
+    @Override
+    public void consume() {
+        if (position >= text.length()) {
+            throw new IllegalStateException("cannot consume EOF");
+        }
+        position++;
+    }
+
+    @Override
+    public int LA(int i) {
+        int offset;
+        if (i > 0) {
+            offset = position + i - 1;
+        } else if (i < 0) {
+            offset = position + i;
+        } else {
+            return 0;
+        }
+        return offset < 0 || offset >= text.length() ? IntStream.EOF : text.charAt(offset);
+    }
+
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+    }
+
+    @Override
+    public int index() {
+        return position;
+    }
+
+    @Override
+    public void seek(int index) {
+        position = index;
+    }
+
+    @Override
+    public int size() {
+        return text.length();
+    }
+
+    @Override
+    public String getSourceName() {
+        return IntStream.UNKNOWN_SOURCE_NAME;
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
@@ -1,17 +1,169 @@
 package io.github.reata.sqllineage4j.parser;
 
-import org.antlr.v4.runtime.CharStream;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTree;
 
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parses SQL statements, reusing one lexer/parser pair per thread.
+ * <p>
+ * The prediction DFA caches built up while parsing are shared by every parser instance in the JVM.
+ * They can be warmed up ahead of time, measured and cleared through any instance.
+ */
 public class LineageParser {
 
+    public static final class Builder {
+        private boolean twoStage = false;
+
+        private Builder() {
+        }
+
+        /**
+         * Parse with SLL prediction and bail out on the first syntax error, then retry the statement with full LL
+         * prediction only if that fails. Most statements parse correctly in the much cheaper SLL mode.
+         */
+        public Builder twoStage() {
+            this.twoStage = true;
+            return this;
+        }
+
+        public LineageParser build() {
+            return new LineageParser(this);
+        }
+    }
+
+    private static final LineageParser DEFAULT = new LineageParser();
+
+    private final boolean twoStage;
+    private final ThreadLocal<Pipeline> pipelines = ThreadLocal.withInitial(Pipeline::new);
+    private final LongAdder parseCount = new LongAdder();
+    private final LongAdder fallbackCount = new LongAdder();
+
+    public LineageParser() {
+        this(builder());
+    }
+
+    private LineageParser(Builder builder) {
+        this.twoStage = builder.twoStage;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static LineageParser getDefault() {
+        return DEFAULT;
+    }
+
     public static ParseTree parse(String sql) {
-        CharStream inputStream = CharStreams.fromString(sql.toUpperCase());
-        SqlBaseLexer sqlBaseLexer = new SqlBaseLexer(inputStream);
-        CommonTokenStream commonTokenStream = new CommonTokenStream(sqlBaseLexer);
-        SqlBaseParser sqlBaseParser = new SqlBaseParser(commonTokenStream);
-        return sqlBaseParser.singleStatement();
+        return DEFAULT.parseStatement(sql);
+    }
+
+    public ParseTree parseStatement(String sql) {
+        parseCount.increment();
+        Pipeline pipeline = pipelines.get();
+        pipeline.reset(new UpperCaseCharStream(CharSequenceCharStream.of(sql)));
+        if (twoStage) {
+            try {
+                return pipeline.parseSLL();
+            } catch (ParseCancellationException e) {
+                fallbackCount.increment();
+                pipeline.rewind();
+            }
+        }
+        return pipeline.parseLL();
+    }
+
+    /**
+     * @return number of statements parsed by this instance
+     */
+    public long getParseCount() {
+        return parseCount.sum();
+    }
+
+    /**
+     * @return number of statements that failed in SLL mode and had to be parsed again with full LL prediction
+     */
+    public long getFallbackCount() {
+        return fallbackCount.sum();
+    }
+
+    /**
+     * Parse the given statements and throw away the result, so that later calls hit a populated DFA cache.
+     */
+    public void warmUp(String... statements) {
+        for (String statement : statements) {
+            parseStatement(statement);
+        }
+    }
+
+    /**
+     * @return number of DFA states currently cached by the lexer and the parser
+     */
+    public long getDFACacheSize() {
+        Pipeline pipeline = pipelines.get();
+        return countStates(pipeline.lexer.getInterpreter().decisionToDFA)
+                + countStates(pipeline.parser.getInterpreter().decisionToDFA);
+    }
+
+    /**
+     * Drop the lexer and parser DFA caches. As these are JVM-wide, this should not run while statements
+     * are being parsed on other threads.
+     */
+    public void clearDFACache() {
+        Pipeline pipeline = pipelines.get();
+        pipeline.lexer.getInterpreter().clearDFA();
+        pipeline.parser.getInterpreter().clearDFA();
+    }
+
+    private static long countStates(DFA[] decisionToDFA) {
+        long count = 0;
+        for (DFA dfa : decisionToDFA) {
+            count += dfa.states.size();
+        }
+        return count;
+    }
+
+    private static final class Pipeline {
+        private final SqlBaseLexer lexer;
+        private final CommonTokenStream tokenStream;
+        private final SqlBaseParser parser;
+
+        private Pipeline() {
+            lexer = new SqlBaseLexer(CharStreams.fromString(""));
+            tokenStream = new CommonTokenStream(lexer);
+            parser = new SqlBaseParser(tokenStream);
+        }
+
+        private void reset(CharStream inputStream) {
+            // tokens already handed out keep a reference to their own input stream, so trees from earlier calls stay valid
+            lexer.setInputStream(inputStream);
+            tokenStream.setTokenSource(lexer);
+            parser.setTokenStream(tokenStream);
+        }
+
+        private void rewind() {
+            // also seeks the token stream back to the first token
+            parser.reset();
+        }
+
+        private ParseTree parseSLL() {
+            parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+            parser.setErrorHandler(new BailErrorStrategy());
+            parser.removeErrorListeners();
+            return parser.singleStatement();
+        }
+
+        private ParseTree parseLL() {
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.removeErrorListeners();
+            parser.addErrorListener(ConsoleErrorListener.INSTANCE);
+            return parser.singleStatement();
+        }
     }
 }
@@ -1,32 +1,115 @@
 package io.github.reata.sqllineage4j.parser;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /*
  This is from Spark's SparkSQLCLIDriver
  See https://github.com/apache/spark/blob/master/sql/hive-thriftserver/src/main/scala/org/apache/spark/sql/hive/thriftserver/SparkSQLCLIDriver.scala
  */
-public class StatementSplitter {
+
+/**
+ * Splits a script into statements on semicolons outside of quotes and comments.
+ * <p>
+ * Input is scanned in a single pass with one character of lookahead, and statements are handed out one at a time
+ * through {@link #iterator()}, so a {@link Reader} or {@link java.nio.CharBuffer} can be split without ever holding
+ * the whole script in memory. A splitter consumes its input once and can only be iterated once.
+ */
+public class StatementSplitter implements Iterable<String> {
+    private static final int EOF = -1;
+    private static final int UNREAD = -2;
+    private static final int BUFFER_SIZE = 8192;
+
     private boolean insideSingleQuote = false;
     private boolean insideDoubleQuote = false;
     private boolean insideSimpleComment = false;
     private int bracketedCommentLevel = 0;
     private boolean escape = false;
-    private int beginIndex = 0;
     private boolean leavingBracketedComment = false;
     private boolean isStatement = false;
-    private final ArrayList<String> ret = new ArrayList<>();
+    private boolean finished = false;
+
+    // text of the statement being scanned, from the character after the last semicolon
+    private final StringBuilder current = new StringBuilder();
 
-    private final String line;
+    private final CharSequence text;
+    private int textIndex = 0;
+    private final Reader reader;
+    private final char[] buffer;
+    private int bufferIndex = 0;
+    private int bufferLimit = 0;
+    private int lookahead = UNREAD;
+    private int previous = EOF;
 
     public StatementSplitter(String sql) {
-        this.line = sql;
+        this((CharSequence) sql);
+    }
+
+    /**
+     * @param sql script to split, e.g. a {@link java.nio.CharBuffer} decoded from a memory-mapped file
+     */
+    public StatementSplitter(CharSequence sql) {
+        this.text = sql;
+        this.reader = null;
+        this.buffer = null;
+    }
+
+    /**
+     * @param reader script to split, read incrementally as statements are requested. It is not closed by the splitter.
+     */
+    public StatementSplitter(Reader reader) {
+        this.text = null;
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
     }
 
     public List<String> split() {
-        for (int index = 0; index < line.length(); index++) {
-            char c = line.charAt(index);
+        List<String> ret = new ArrayList<>();
+        forEach(ret::add);
+        return ret;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            private String next = nextStatement();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public String next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                String statement = next;
+                next = nextStatement();
+                return statement;
+            }
+        };
+    }
+
+    /**
+     * @return the next statement, or null once the input is exhausted
+     */
+    private String nextStatement() {
+        if (finished) {
+            return null;
+        }
+        if (lookahead == UNREAD) {
+            lookahead = read();
+        }
+        int c;
+        while ((c = lookahead) != EOF) {
+            lookahead = read();
+            boolean segmentStart = current.length() == 0;
             if (leavingBracketedComment) {
                 bracketedCommentLevel = -1;
                 leavingBracketedComment = false;
@@ -40,45 +123,73 @@ public class StatementSplitter {
                     insideDoubleQuote = !insideDoubleQuote;
                 }
             } else if (c == '-') {
-                boolean hasNext = index + 1 < line.length();
                 if (insideDoubleQuote || insideSingleQuote || insideComment()) {
-                } else if (hasNext && line.charAt(index + 1) == '-') {
+                } else if (lookahead == '-') {
                     insideSimpleComment = true;
                 }
             } else if (c == ';') {
                 if (insideSingleQuote || insideDoubleQuote || insideComment()) {
                 } else {
-                    if (isStatement) {
-                        ret.add(line.substring(beginIndex, index));
-                    }
-                    beginIndex = index + 1;
+                    String statement = isStatement ? current.toString() : null;
+                    // the next statement begins right after the semicolon
+                    current.setLength(0);
                     isStatement = false;
+                    escape = false;
+                    previous = c;
+                    if (statement != null) {
+                        return statement;
+                    }
+                    continue;
                 }
             } else if (c == '\n') {
                 if (!escape) {
                     insideSimpleComment = false;
                 }
             } else if (c == '/' && !insideSimpleComment) {
-                boolean hasNext = index + 1 < line.length();
                 if (insideSingleQuote || insideDoubleQuote) {
-                } else if (insideBracketedComment() && line.charAt(index - 1) == '*') {
+                } else if (insideBracketedComment() && previous == '*') {
                     leavingBracketedComment = true;
-                } else if (hasNext && !insideBracketedComment() & line.charAt(index + 1) == '*') {
+                } else if (!insideBracketedComment() & lookahead == '*') {
                     bracketedCommentLevel += 1;
                 }
             }
             if (escape) {
                 escape = false;
-            } else if (line.charAt(index) == '\\') {
+            } else if (c == '\\') {
                 escape = true;
             }
-            isStatement = statementInProgress(index);
+            previous = c;
+            current.append((char) c);
+            isStatement = statementInProgress(c, segmentStart);
         }
+        finished = true;
         boolean endOfBracketedComment = leavingBracketedComment && bracketedCommentLevel == 1;
         if (!endOfBracketedComment && (isStatement || insideBracketedComment())) {
-            ret.add(line.substring(beginIndex));
+            return current.toString();
         }
-        return ret;
+        return null;
+    }
+
+    private int read() {
+        if (text != null) {
+            return textIndex < text.length() ? text.charAt(textIndex++) : EOF;
+        }
+        if (bufferIndex == bufferLimit) {
+            try {
+                int n;
+                do {
+                    n = reader.read(buffer, 0, buffer.length);
+                } while (n == 0);
+                if (n == EOF) {
+                    return EOF;
+                }
+                bufferIndex = 0;
+                bufferLimit = n;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return buffer[bufferIndex++];
     }
 
     private boolean insideBracketedComment() {
@@ -89,7 +200,7 @@ public class StatementSplitter {
         return insideSimpleComment || insideBracketedComment();
     }
 
-    private boolean statementInProgress(int index) {
-        return isStatement || (!insideComment() && index > beginIndex && !String.valueOf(line.charAt(index)).trim().isEmpty());
+    private boolean statementInProgress(int c, boolean segmentStart) {
+        return isStatement || (!insideComment() && !segmentStart && c > ' ');
     }
 }
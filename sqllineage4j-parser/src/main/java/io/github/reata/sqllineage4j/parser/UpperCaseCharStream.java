@@ -0,0 +1,69 @@
+package io.github.reata.sqllineage4j.parser;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * Presents an upper-cased view of a {@link CharStream} to the lexer, so that keywords match case-insensitively.
+ * Only lookahead is case-folded, {@link #getText(Interval)} still returns the original characters,
+ * which keeps identifier casing and string literals intact in token and tree text.
+ */
+public class UpperCaseCharStream implements CharStream {
+    private final CharStream stream;
+
+    public UpperCaseCharStream(CharStream stream) {
+        this.stream = stream;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        return stream.getText(interval);
+    }
+
+    @Override
+    public void consume() {
+        stream.consume();
+    }
+
+    @Override
+    public int LA(int i) {
+        int c = stream.LA(i);
+        // EOF, and 0 for LA(0), are passed through unchanged
+        return c > 0 ? Character.toUpperCase(c) : c;
+    }
+
+    @Override
+    public int mark() {
+        return stream.mark();
+    }
+
+    @Override
+    public void release(int marker) {
+        stream.release(marker);
+    }
+
+    @Override
+    public int index() {
+        return stream.index();
+    }
+
+    @Override
+    public void seek(int index) {
+        stream.seek(index);
+    }
+
+    @Override
+    public int size() {
+        return stream.size();
+    }
+
+    @Override
+    public String getSourceName() {
+        return stream.getSourceName();
+    }
+
+    @Override
+    public String toString() {
+        return stream.toString();
+    }
+}
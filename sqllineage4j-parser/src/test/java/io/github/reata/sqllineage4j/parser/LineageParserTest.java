@@ -0,0 +1,73 @@
+package io.github.reata.sqllineage4j.parser;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LineageParserTest {
+
+    @Test
+    public void testReuseParser() {
+        LineageParser parser = new LineageParser();
+        ParseTree first = parser.parseStatement("insert overwrite table tab1 select * from tab2");
+        ParseTree second = parser.parseStatement("select col1 from tab3");
+        assertEquals("insertoverwritetabletab1select*fromtab2<EOF>", first.getText());
+        assertEquals("selectcol1fromtab3<EOF>", second.getText());
+    }
+
+    @Test
+    public void testDFACache() {
+        LineageParser parser = new LineageParser();
+        parser.clearDFACache();
+        assertEquals(0, parser.getDFACacheSize());
+        parser.warmUp("insert overwrite table tab1 select * from tab2");
+        assertTrue(parser.getDFACacheSize() > 0);
+        parser.clearDFACache();
+        assertEquals(0, parser.getDFACacheSize());
+    }
+
+    @Test
+    public void testTwoStage() {
+        LineageParser parser = LineageParser.builder().twoStage().build();
+        ParseTree tree = parser.parseStatement("insert overwrite table tab1 select * from tab2");
+        assertEquals("insertoverwritetabletab1select*fromtab2<EOF>", tree.getText());
+        assertEquals(1, parser.getParseCount());
+        assertEquals(0, parser.getFallbackCount());
+        // a syntax error makes SLL bail out, and the statement is parsed again in LL mode for error reporting
+        parser.parseStatement("select ( from tab1");
+        assertEquals(2, parser.getParseCount());
+        assertEquals(1, parser.getFallbackCount());
+    }
+
+    @Test
+    public void testOriginalTextPreserved() {
+        ParseTree tree = LineageParser.parse("Select Col1, 'Literal' From Db.Tab1");
+        assertEquals("SelectCol1,'Literal'FromDb.Tab1<EOF>", tree.getText());
+    }
+
+    @Test
+    public void testCharSequenceCharStream() {
+        String sql = "insert into tab1 -- comment\nselect `Col1`, 'it''s' from db.tab2 where x <> 1.5e3";
+        CharStream stream = CharSequenceCharStream.of(sql);
+        assertTrue(stream instanceof CharSequenceCharStream);
+        assertEquals(tokens(CharStreams.fromString(sql)), tokens(stream));
+        // characters outside the BMP need code point indexes
+        String emoji = "select '\uD83D\uDE00' from tab1";
+        assertFalse(CharSequenceCharStream.of(emoji) instanceof CharSequenceCharStream);
+        assertEquals("select'\uD83D\uDE00'fromtab1<EOF>", LineageParser.parse(emoji).getText());
+    }
+
+    private static List<String> tokens(CharStream stream) {
+        return new SqlBaseLexer(new UpperCaseCharStream(stream)).getAllTokens().stream()
+                .map(t -> t.getType() + ":" + t.getText() + "@" + t.getStartIndex() + "-" + t.getStopIndex())
+                .collect(Collectors.toList());
+    }
+}
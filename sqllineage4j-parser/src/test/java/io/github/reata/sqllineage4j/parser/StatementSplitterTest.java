@@ -0,0 +1,40 @@
+package io.github.reata.sqllineage4j.parser;
+
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class StatementSplitterTest {
+    private static final String SQL = "select 1;\n" +
+            "-- comment; with semicolon\n" +
+            "select ';' from tab1 /* another; */;\n" +
+            ";\n" +
+            "select 2";
+
+    private static final List<String> STATEMENTS = List.of(
+            "select 1",
+            "\n-- comment; with semicolon\nselect ';' from tab1 /* another; */",
+            "\nselect 2");
+
+    @Test
+    public void testSplit() {
+        assertEquals(STATEMENTS, new StatementSplitter(SQL).split());
+        assertEquals(STATEMENTS, new StatementSplitter(CharBuffer.wrap(SQL)).split());
+        assertEquals(STATEMENTS, new StatementSplitter(new StringReader(SQL)).split());
+    }
+
+    @Test
+    public void testIterator() {
+        Iterator<String> iterator = new StatementSplitter(new StringReader(SQL)).iterator();
+        for (String statement : STATEMENTS) {
+            assertEquals(statement, iterator.next());
+        }
+        assertFalse(iterator.hasNext());
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.reata.sqllineage4j.server;
+
+/**
+ * Just enough of a JSON writer for the server responses, which are flat objects, arrays of strings
+ * and arrays of objects. The caller is responsible for producing a well-formed sequence of calls.
+ */
+final class JsonWriter {
+    private final StringBuilder sb = new StringBuilder();
+    private boolean first = true;
+
+    JsonWriter beginObject() {
+        separate();
+        sb.append('{');
+        first = true;
+        return this;
+    }
+
+    JsonWriter endObject() {
+        sb.append('}');
+        first = false;
+        return this;
+    }
+
+    JsonWriter beginArray() {
+        separate();
+        sb.append('[');
+        first = true;
+        return this;
+    }
+
+    JsonWriter endArray() {
+        sb.append(']');
+        first = false;
+        return this;
+    }
+
+    JsonWriter name(String name) {
+        separate();
+        quote(name);
+        sb.append(':');
+        first = true;
+        return this;
+    }
+
+    JsonWriter value(String value) {
+        separate();
+        if (value == null) {
+            sb.append("null");
+        } else {
+            quote(value);
+        }
+        return this;
+    }
+
+    JsonWriter value(long value) {
+        separate();
+        sb.append(value);
+        return this;
+    }
+
+    JsonWriter value(double value) {
+        separate();
+        sb.append(Double.isFinite(value) ? Double.toString(value) : "null");
+        return this;
+    }
+
+    private void separate() {
+        if (!first) {
+            sb.append(',');
+        }
+        first = false;
+    }
+
+    private void quote(String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return sb.toString();
+    }
+}
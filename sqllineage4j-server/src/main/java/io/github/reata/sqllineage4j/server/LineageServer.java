@@ -0,0 +1,345 @@
+package io.github.reata.sqllineage4j.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.reata.sqllineage4j.common.constant.LineageLevel;
+import io.github.reata.sqllineage4j.common.model.Column;
+import io.github.reata.sqllineage4j.common.model.Table;
+import io.github.reata.sqllineage4j.core.LineageRunner;
+import io.github.reata.sqllineage4j.graph.LineageGraphType;
+import io.github.reata.sqllineage4j.parser.LineageParser;
+import org.apache.commons.cli.*;
+import org.javatuples.Pair;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Serves lineage over HTTP from a long-running JVM, so that callers don't pay for JVM startup, parser class loading
+ * and ATN deserialization on every request.
+ * <ul>
+ *     <li>{@code POST /lineage} takes SQL as the request body and returns its lineage as JSON.
+ *     Add {@code ?level=table} to skip column lineage.</li>
+ *     <li>{@code GET /metrics} returns request counts and latencies as JSON.</li>
+ * </ul>
+ * At most {@code maxConcurrentRequests} requests are analyzed at a time. A request that can't start within
+ * {@code queueTimeoutMillis} is turned away with 503.
+ */
+public class LineageServer {
+
+    public static final class Builder {
+        private String host = "127.0.0.1";
+        private int port = 5000;
+        private int maxConcurrentRequests = Runtime.getRuntime().availableProcessors();
+        private long queueTimeoutMillis = 1000;
+        private int maxRequestBytes = 16 * 1024 * 1024;
+        private LineageGraphType graphType = LineageGraphType.NATIVE;
+
+        private Builder() {
+        }
+
+        public Builder host(final String host) {
+            this.host = host;
+            return this;
+        }
+
+        /**
+         * Port 0 picks a free port, see {@link LineageServer#getPort()}.
+         */
+        public Builder port(final int port) {
+            this.port = port;
+            return this;
+        }
+
+        public Builder maxConcurrentRequests(final int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+            return this;
+        }
+
+        public Builder queueTimeoutMillis(final long queueTimeoutMillis) {
+            this.queueTimeoutMillis = queueTimeoutMillis;
+            return this;
+        }
+
+        public Builder maxRequestBytes(final int maxRequestBytes) {
+            this.maxRequestBytes = maxRequestBytes;
+            return this;
+        }
+
+        public Builder graphType(final LineageGraphType graphType) {
+            this.graphType = graphType;
+            return this;
+        }
+
+        public LineageServer build() {
+            if (host == null) {
+                throw new IllegalArgumentException("host must be specified");
+            }
+            if (graphType == null) {
+                throw new IllegalArgumentException("graph type must be specified");
+            }
+            if (port < 0 || port > 65535) {
+                throw new IllegalArgumentException("port must be between 0 and 65535");
+            }
+            if (maxConcurrentRequests < 1) {
+                throw new IllegalArgumentException("max concurrent requests must be positive");
+            }
+            if (queueTimeoutMillis < 0) {
+                throw new IllegalArgumentException("queue timeout must not be negative");
+            }
+            if (maxRequestBytes < 1) {
+                throw new IllegalArgumentException("max request bytes must be positive");
+            }
+            return new LineageServer(this);
+        }
+    }
+
+    private static final String[] WARM_UP_STATEMENTS = {
+            "INSERT OVERWRITE TABLE tab1 SELECT a.col1, max(b.col2) AS col2 FROM tab2 a JOIN tab3 b ON a.id = b.id GROUP BY a.col1",
+            "WITH cte1 AS (SELECT col1 FROM tab1) INSERT INTO tab2 SELECT CASE WHEN col1 > 0 THEN col1 END AS col1 FROM cte1",
+            "CREATE TABLE tab1 AS SELECT cast(col1 AS string) AS col1 FROM (SELECT col1 FROM tab2) t"
+    };
+
+    private final String host;
+    private final int port;
+    private final int maxConcurrentRequests;
+    private final long queueTimeoutMillis;
+    private final int maxRequestBytes;
+    private final LineageGraphType graphType;
+
+    private final LineageParser parser = LineageParser.builder().twoStage().build();
+    private final Semaphore permits;
+    private final LatencyMetrics latency = new LatencyMetrics();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private LineageServer(final Builder builder) {
+        this.host = builder.host;
+        this.port = builder.port;
+        this.maxConcurrentRequests = builder.maxConcurrentRequests;
+        this.queueTimeoutMillis = builder.queueTimeoutMillis;
+        this.maxRequestBytes = builder.maxRequestBytes;
+        this.graphType = builder.graphType;
+        this.permits = new Semaphore(maxConcurrentRequests);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Warm up the analysis pipeline, then start accepting requests.
+     */
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("server already started");
+        }
+        for (String statement : WARM_UP_STATEMENTS) {
+            LineageRunner.builder(statement).graphType(graphType).parser(parser).build().getColumnLineage();
+        }
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        // threads beyond the analysis limit keep /metrics and rejections responsive under load
+        executor = Executors.newFixedThreadPool(maxConcurrentRequests * 2);
+        server.setExecutor(executor);
+        server.createContext("/lineage", this::handleLineage);
+        server.createContext("/metrics", this::handleMetrics);
+        server.start();
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("server not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    public LatencyMetrics getLatencyMetrics() {
+        return latency;
+    }
+
+    private void handleLineage(HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                sendError(exchange, 405, "use POST with SQL as request body");
+                return;
+            }
+            boolean acquired;
+            try {
+                acquired = permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            if (!acquired) {
+                rejected.increment();
+                sendError(exchange, 503, "too many concurrent requests");
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                String sql = readBody(exchange.getRequestBody());
+                if (sql == null) {
+                    sendError(exchange, 413, "request body exceeds " + maxRequestBytes + " bytes");
+                    return;
+                }
+                send(exchange, 200, analyze(sql, parseLevel(exchange.getRequestURI().getQuery())));
+            } catch (RuntimeException e) {
+                errors.increment();
+                sendError(exchange, 500, String.valueOf(e));
+            } finally {
+                permits.release();
+                latency.record(System.nanoTime() - start);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            JsonWriter json = new JsonWriter().beginObject()
+                    .name("requests").value(latency.getCount())
+                    .name("rejected").value(rejected.sum())
+                    .name("errors").value(errors.sum())
+                    .name("inFlight").value(maxConcurrentRequests - permits.availablePermits())
+                    .name("maxConcurrentRequests").value(maxConcurrentRequests)
+                    .name("parseCount").value(parser.getParseCount())
+                    .name("parseFallbackCount").value(parser.getFallbackCount())
+                    .name("latencyMillis").beginObject()
+                    .name("mean").value(latency.getMeanMillis())
+                    .name("p50").value(latency.getPercentileMillis(0.5))
+                    .name("p90").value(latency.getPercentileMillis(0.9))
+                    .name("p99").value(latency.getPercentileMillis(0.99))
+                    .name("max").value(latency.getMaxMillis())
+                    .endObject()
+                    .endObject();
+            send(exchange, 200, json.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private String analyze(String sql, LineageLevel level) {
+        LineageRunner runner = LineageRunner.builder(sql).graphType(graphType).level(level).parser(parser).build();
+        JsonWriter json = new JsonWriter().beginObject()
+                .name("statements").value(runner.getStatementLineageHolders().size());
+        writeTables(json.name("sourceTables"), runner.sourceTables());
+        writeTables(json.name("targetTables"), runner.targetTables());
+        writeTables(json.name("intermediateTables"), runner.intermediateTables());
+        if (level == LineageLevel.COLUMN) {
+            List<Pair<Column, Column>> columnLineage = runner.getColumnLineage().stream()
+                    .sorted(Comparator.comparing((Pair<Column, Column> p) -> p.getValue0().toString())
+                            .thenComparing(p -> p.getValue1().toString()))
+                    .collect(Collectors.toList());
+            json.name("columnLineage").beginArray();
+            for (Pair<Column, Column> pair : columnLineage) {
+                json.beginObject()
+                        .name("source").value(pair.getValue0().toString())
+                        .name("target").value(pair.getValue1().toString())
+                        .endObject();
+            }
+            json.endArray();
+        }
+        return json.endObject().toString();
+    }
+
+    private static void writeTables(JsonWriter json, Collection<Table> tables) {
+        json.beginArray();
+        tables.stream().map(Table::toString).sorted().forEach(json::value);
+        json.endArray();
+    }
+
+    private static LineageLevel parseLevel(String query) {
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (param.equalsIgnoreCase("level=table")) {
+                    return LineageLevel.TABLE;
+                }
+            }
+        }
+        return LineageLevel.COLUMN;
+    }
+
+    /**
+     * @return the body decoded as UTF-8, or null if it is larger than allowed
+     */
+    private String readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            if (body.size() + n > maxRequestBytes) {
+                return null;
+            }
+            body.write(buffer, 0, n);
+        }
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, new JsonWriter().beginObject().name("error").value(message).endObject().toString());
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Options options = new Options();
+        Option host = Option.builder().longOpt("host").argName("address").hasArg().desc("address to bind, defaults to 127.0.0.1").build();
+        Option port = Option.builder("p").longOpt("port").argName("port").hasArg().desc("port to listen on, defaults to 5000").build();
+        Option concurrency = Option.builder("c").longOpt("concurrency").argName("requests").hasArg().desc("max requests analyzed at a time, defaults to number of processors").build();
+        options.addOption(host);
+        options.addOption(port);
+        options.addOption(concurrency);
+
+        Builder builder = LineageServer.builder();
+        try {
+            CommandLine cmd = new DefaultParser().parse(options, args);
+            if (cmd.hasOption("host")) {
+                builder.host(cmd.getOptionValue("host"));
+            }
+            if (cmd.hasOption("p")) {
+                builder.port(Integer.parseInt(cmd.getOptionValue("p")));
+            }
+            if (cmd.hasOption("c")) {
+                builder.maxConcurrentRequests(Integer.parseInt(cmd.getOptionValue("c")));
+            }
+        } catch (ParseException | NumberFormatException e) {
+            new HelpFormatter().printHelp("sqllineage4j-server", options);
+            System.exit(1);
+        }
+        LineageServer server = builder.build();
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("Listening on http://" + server.host + ":" + server.getPort());
+    }
+}
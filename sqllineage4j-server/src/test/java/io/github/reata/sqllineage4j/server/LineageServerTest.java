@@ -0,0 +1,68 @@
+package io.github.reata.sqllineage4j.server;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LineageServerTest {
+    private static LineageServer server;
+    private static final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        server = LineageServer.builder().port(0).maxConcurrentRequests(2).build();
+        server.start();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        server.stop();
+    }
+
+    private static HttpResponse<String> send(String path, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path));
+        request = body == null ? request.GET() : request.POST(HttpRequest.BodyPublishers.ofString(body));
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void testLineage() throws Exception {
+        HttpResponse<String> response = send("/lineage", "insert overwrite table tab1 select col1 from tab2;\n" +
+                "insert overwrite table tab3 select \"quoted\" AS col2 from tab1");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"statements\":2,\"sourceTables\":[\"<default>.tab2\"],\"targetTables\":[\"<default>.tab3\"]," +
+                "\"intermediateTables\":[\"<default>.tab1\"]," +
+                "\"columnLineage\":[{\"source\":\"<default>.tab2.col1\",\"target\":\"<default>.tab1.col1\"}]}", response.body());
+    }
+
+    @Test
+    public void testTableLevel() throws Exception {
+        HttpResponse<String> response = send("/lineage?level=table", "insert overwrite table tab1 select col1 from tab2");
+        assertEquals(200, response.statusCode());
+        assertEquals("{\"statements\":1,\"sourceTables\":[\"<default>.tab2\"],\"targetTables\":[\"<default>.tab1\"]," +
+                "\"intermediateTables\":[]}", response.body());
+    }
+
+    @Test
+    public void testMethodNotAllowed() throws Exception {
+        assertEquals(405, send("/lineage", null).statusCode());
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        send("/lineage", "select * from tab1");
+        HttpResponse<String> response = send("/metrics", null);
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().startsWith("{\"requests\":"));
+        assertTrue(response.body().contains("\"latencyMillis\":{\"mean\":"));
+    }
+}